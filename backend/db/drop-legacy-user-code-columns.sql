@@ -0,0 +1,14 @@
+-- Removes the plaintext verification and reset code columns that earlier versions kept on
+-- users. Codes now live hashed in user_codes, and unexpired legacy codes are copied there
+-- when the application starts (AccountCleanupService.importLegacyCodes).
+--
+-- Run by hand, once every instance runs a version that reads user_codes and has been
+-- started at least once; instances on the old version still read these columns.
+-- MySQL:
+--   mysql project_tracker < db/drop-legacy-user-code-columns.sql
+
+ALTER TABLE users
+    DROP COLUMN verification_code,
+    DROP COLUMN verification_code_expiry,
+    DROP COLUMN password_reset_code,
+    DROP COLUMN password_reset_code_expiry;
@@ -0,0 +1,120 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.EmailTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status update email rendering: compiled {@link EmailTemplates} against the previous
+ * String.formatted text block (kept here as the baseline).
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=EmailTemplate
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String APP_NAME = "Project Tracker";
+    private static final String FRONTEND_URL = "http://localhost:5173";
+
+    private EmailTemplates templates;
+
+    @Setup
+    public void setUp() throws IOException {
+        templates = new EmailTemplates(APP_NAME, FRONTEND_URL);
+        if (!templates.statusUpdate("Website Redesign", "Active", "On Hold")
+                .equals(legacyStatusUpdate("Website Redesign", "Active", "On Hold"))) {
+            throw new IllegalStateException("Compiled template output differs from the baseline");
+        }
+    }
+
+    @Benchmark
+    public String formatted() {
+        return legacyStatusUpdate("Website Redesign", "Active", "On Hold");
+    }
+
+    @Benchmark
+    public String compiled() {
+        return templates.statusUpdate("Website Redesign", "Active", "On Hold");
+    }
+
+    private static String legacyStatusUpdate(String projectName, String oldStatus, String newStatus) {
+        String statusColor = legacyStatusColor(newStatus);
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                    <meta charset="UTF-8">
+                    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                </head>
+                <body style="margin: 0; padding: 0; font-family: Arial, sans-serif; background-color: #f4f4f4;">
+                    <div style="max-width: 600px; margin: 0 auto; padding: 20px;">
+                        <div style="background-color: #ffffff; border-radius: 10px; padding: 40px; box-shadow: 0 2px 10px rgba(0,0,0,0.1);">
+                            <div style="text-align: center; margin-bottom: 30px;">
+                                <h1 style="color: #2563eb; margin: 0;">%s</h1>
+                            </div>
+                            
+                            <h2 style="color: #333333; margin-bottom: 20px;">Project Status Update</h2>
+                            
+                            <p style="color: #666666; font-size: 16px; line-height: 1.5;">
+                                The status of your project has been updated.
+                            </p>
+                            
+                            <div style="background-color: #f8fafc; border-radius: 8px; padding: 20px; margin: 30px 0;">
+                                <p style="color: #333333; font-size: 18px; font-weight: bold; margin: 0 0 15px 0;">
+                                    %s
+                                </p>
+                                
+                                <div style="display: flex; align-items: center; gap: 10px;">
+                                    <span style="background-color: #e5e7eb; color: #6b7280; padding: 6px 12px; border-radius: 20px; font-size: 14px; font-weight: 500;">
+                                        %s
+                                    </span>
+                                    <span style="color: #9ca3af; font-size: 20px;">→</span>
+                                    <span style="background-color: %s; color: white; padding: 6px 12px; border-radius: 20px; font-size: 14px; font-weight: 500;">
+                                        %s
+                                    </span>
+                                </div>
+                            </div>
+                            
+                            <p style="color: #666666; font-size: 14px; line-height: 1.5;">
+                                Log in to <a href="%s" style="color: #2563eb; text-decoration: none;">%s</a> to view more details about your project.
+                            </p>
+                            
+                            <hr style="border: none; border-top: 1px solid #eeeeee; margin: 30px 0;">
+                            
+                            <p style="color: #999999; font-size: 12px; text-align: center;">
+                                You received this email because you have email notifications enabled for this project.
+                                <br>To disable notifications, edit your project settings in %s.
+                            </p>
+                        </div>
+                    </div>
+                </body>
+                </html>
+                """.formatted(APP_NAME, projectName, oldStatus, statusColor, newStatus, FRONTEND_URL, APP_NAME, APP_NAME);
+    }
+
+    private static String legacyStatusColor(String status) {
+        if (status == null) return "#6b7280"; // gray
+        return switch (status.toLowerCase()) {
+            case "active" -> "#22c55e"; // green
+            case "on hold" -> "#f59e0b"; // yellow/amber
+            case "completed" -> "#3b82f6"; // blue
+            case "cancelled" -> "#ef4444"; // red
+            default -> "#6b7280"; // gray
+        };
+    }
+}
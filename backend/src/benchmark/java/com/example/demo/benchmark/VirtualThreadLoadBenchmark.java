@@ -0,0 +1,129 @@
+package com.example.demo.benchmark;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1000 concurrent clients against embedded Tomcat in platform-thread mode (Tomcat's default
+ * 200 worker threads) and in virtual-thread mode (the executor spring.threads.virtual.enabled
+ * installs). Each request blocks for {@code ioMillis}, standing in for a JDBC query or SMTP
+ * round trip. Throughput mode gives requests per millisecond, SampleTime gives the latency
+ * distribution including p0.99.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=VirtualThreadLoad
+ * <p>
+ * {@code -p work=blocking,pinned} adds requests that block inside a synchronized block, as a
+ * driver that pins its carrier thread would. In virtual mode these run one per CPU core, so
+ * expect requests to time out: that is the failure the pinning monitor exists to catch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1000)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xss512k")
+public class VirtualThreadLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param("blocking")
+    public String work;
+
+    @Param("100")
+    public int ioMillis;
+
+    private WebServer server;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.addProtocolHandlerCustomizers(protocol -> {
+            if (protocol instanceof AbstractProtocol<?> http) {
+                // As configured in application.properties.example
+                http.setMaxConnections(10_000);
+                http.setAcceptCount(1_000);
+            }
+            if ("virtual".equals(threads)) {
+                protocol.setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+            }
+        });
+        boolean pinned = "pinned".equals(work);
+        server = factory.getWebServer(context -> context.addServlet("io", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                if (pinned) {
+                    synchronized (new Object()) {
+                        blockOnIo();
+                    }
+                } else {
+                    blockOnIo();
+                }
+                resp.setContentType("text/plain");
+                resp.getWriter().write("ok");
+            }
+        }).addMapping("/io"));
+        server.start();
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/io"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private void blockOnIo() {
+        try {
+            Thread.sleep(ioMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
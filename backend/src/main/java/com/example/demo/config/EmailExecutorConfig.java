@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Threads that deliver email, kept apart from request and scheduler threads so a slow SMTP
+ * server only ever backs up this pool. The queue is bounded and a full pool rejects new work
+ * (the emails stay in the outbox and the next poll picks them up), so nothing blocks callers.
+ */
+@Configuration
+public class EmailExecutorConfig {
+
+    public static final String EMAIL_EXECUTOR = "emailExecutor";
+
+    @Bean(name = EMAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor emailExecutor(
+            @Value("${app.mail.executor.threads:2}") int threads,
+            @Value("${app.mail.executor.queue-capacity:10}") int queueCapacity,
+            @Value("${app.mail.executor.virtual-threads:${spring.threads.virtual.enabled:false}}") boolean virtualThreads,
+            MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("email-");
+        if (virtualThreads) {
+            // Pool size still caps concurrent SMTP sessions; threads blocked on SMTP I/O are just cheaper
+            executor.setThreadFactory(Thread.ofVirtual().name("email-", 0).factory());
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+
+        Gauge.builder("email.executor.queue.size", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Email tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("email.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Email threads currently sending")
+                .register(meterRegistry);
+        return executor;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import com.example.demo.util.PooledMailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Replaces Spring Boot's mail sender with {@link PooledMailSender}, configured from the
+ * same spring.mail.* properties.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailSenderConfig {
+
+    @Bean
+    public PooledMailSender mailSender(
+            MailProperties properties,
+            @Value("${app.mail.pool.size:2}") int poolSize,
+            @Value("${app.mail.pool.borrow-timeout:PT30S}") Duration borrowTimeout,
+            @Value("${app.mail.pool.max-idle:PT2M}") Duration maxIdle,
+            @Value("${app.mail.pool.validate-after:PT10S}") Duration validateAfter,
+            @Value("${app.mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            MeterRegistry meterRegistry) {
+        PooledMailSender sender = new PooledMailSender(poolSize, borrowTimeout, maxIdle, validateAfter,
+                maxMessagesPerConnection, meterRegistry);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+        if (!properties.getProperties().isEmpty()) {
+            Properties javaMailProperties = new Properties();
+            javaMailProperties.putAll(properties.getProperties());
+            sender.setJavaMailProperties(javaMailProperties);
+        }
+        return sender;
+    }
+}
@@ -1,15 +1,68 @@
 package com.example.demo.config;
 
+import com.example.demo.util.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class PasswordEncoderConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderConfig.class);
+
+    // Never calibrate below Spring Security's default cost, nor to something absurd
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 16;
+
+    /**
+     * BCrypt on a bounded hashing pool (see BoundedPasswordEncoder). Hashes made with a lower
+     * cost than the current one are upgraded the next time their owner logs in.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.bcrypt.strength:10}") int strength,
+            @Value("${app.security.bcrypt.target-latency:}") Duration targetLatency,
+            @Value("${app.security.hashing.threads:0}") int threads,
+            @Value("${app.security.hashing.queue-capacity:50}") int queueCapacity,
+            @Value("${app.security.hashing.queue-budget:PT1S}") Duration queueBudget,
+            MeterRegistry meterRegistry) {
+        int cost = targetLatency != null ? calibrateStrength(targetLatency) : strength;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        logger.info("Password hashing: BCrypt cost {} on {} threads", cost, poolSize);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(cost), poolSize, queueCapacity,
+                queueBudget, meterRegistry);
+    }
+
+    /**
+     * Pick the BCrypt cost whose hash time on this host is closest to the target.
+     * Each cost step doubles the work, so one measurement at the minimum cost is enough.
+     */
+    private static int calibrateStrength(Duration targetLatency) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        probe.encode("calibration"); // warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = strengthFor(targetLatency, best);
+        logger.info("BCrypt calibration: cost {} takes {} ms here; cost {} targets {} ms",
+                MIN_STRENGTH, best / 1_000_000, strength, targetLatency.toMillis());
+        return strength;
+    }
+
+    // Cost whose hash time is closest to the target, given the measured time at MIN_STRENGTH
+    static int strengthFor(Duration targetLatency, long minStrengthNanos) {
+        double doublings = Math.log((double) targetLatency.toNanos() / minStrengthNanos) / Math.log(2);
+        return Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, MIN_STRENGTH + (int) Math.round(doublings)));
     }
-}
\ No newline at end of file
+}
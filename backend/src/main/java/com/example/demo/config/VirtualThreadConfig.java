@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import com.example.demo.util.VirtualThreadPinningMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Virtual-thread mode is switched on with spring.threads.virtual.enabled, which moves Tomcat
+ * request handling, @Scheduled jobs and the email executor onto virtual threads. The
+ * password hashing pool stays on platform threads: BCrypt is CPU-bound, so virtual threads
+ * would gain nothing there. This config adds the pinning monitor, on by default in that mode.
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    @Bean
+    @ConditionalOnExpression("${app.diagnostics.virtual-thread-pinning.enabled:${spring.threads.virtual.enabled:false}}")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${app.diagnostics.virtual-thread-pinning.threshold:PT0.02S}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry);
+    }
+}
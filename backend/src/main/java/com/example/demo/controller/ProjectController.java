@@ -1,39 +1,170 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.request.BulkUpdateRequest;
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.dto.response.BulkUpdateResultDTO;
+import com.example.demo.dto.response.ChangeSetDTO;
+import com.example.demo.dto.response.CursorPage;
+import com.example.demo.dto.response.ImportResultDTO;
+import com.example.demo.dto.response.ProjectSummaryDTO;
 import com.example.demo.model.Project;
+import com.example.demo.service.ProjectChangeFeed;
+import com.example.demo.service.ProjectExporter;
+import com.example.demo.service.ProjectImporter;
 import com.example.demo.service.ProjectService;
+import com.example.demo.util.ETags;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/api/projects")
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class ProjectController {
 
+    // Clients may keep responses but must revalidate them (If-None-Match) before each use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     ProjectService service;
 
+    @Autowired
+    ProjectExporter exporter;
+
+    @Autowired
+    ProjectImporter importer;
+
+    @Autowired
+    ProjectChangeFeed changeFeed;
+
     /**
-     * Get all projects (filtered by company for regular users, all for admins)
+     * Get a page of projects (filtered by company for regular users, all for admins)
+     * GET /api/projects?status=Active&projType=...&currPhase=...&search=...
+     *     &startFrom=2025-01-01&startTo=...&estCompFrom=...&estCompTo=...
+     *     &sort=updatedDate|createdDate&order=desc|asc&limit=50&cursor=...
+     * Responses carry an ETag; a matching If-None-Match gets 304 without loading any project.
      */
     @GetMapping
-    public List<Project> getAllProjects() {
-        return service.getProjects();
+    public ResponseEntity<CursorPage<ProjectSummaryDTO>> getAllProjects(
+            @ModelAttribute ProjectFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request,
+            WebRequest webRequest) {
+        String etag = service.getProjectListETag(request.getQueryString());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(service.getProjectPage(filter, cursor, limit));
+    }
+
+    /**
+     * Delta sync: projects created/updated and ids of projects deleted after the cursor.
+     * Omit ?since= for the first (full) sync, then pass back "next" from each response.
+     * GET /api/projects/changes?since=...&limit=500
+     */
+    @GetMapping("/changes")
+    public ChangeSetDTO getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        return changeFeed.changesSince(since, limit);
+    }
+
+    /**
+     * Server-Sent Events: created / updated / deleted / refresh events for the projects
+     * the user can see, with a comment line every heartbeat interval.
+     * GET /api/projects/stream  (Accept: text/event-stream)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return service.streamEvents();
+    }
+
+    /**
+     * Stream every visible project matching the filter as NDJSON or CSV.
+     * Rows are written as they are read, so memory use is independent of the export size.
+     * GET /api/projects/export?format=ndjson|csv (plus any list filter)
+     */
+    @GetMapping("/export")
+    public void exportProjects(
+            @ModelAttribute ProjectFilter filter,
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) throws IOException {
+        ProjectExporter.Format exportFormat = ProjectExporter.Format.fromParam(format);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"projects." + exportFormat.getExtension() + "\"");
+
+        exporter.export(exportFormat, filter, response.getOutputStream());
+    }
+
+    /**
+     * Bulk import projects from a JSON array (assigned to the user's company).
+     * The body is read as a stream; the response has one result per record.
+     * POST /api/projects/import  (Content-Type: application/json)
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ImportResultDTO importProjectsJson(HttpServletRequest request) throws IOException {
+        return importer.importJson(request.getInputStream());
+    }
+
+    /**
+     * Bulk import projects from CSV with a header row, using the export's column names.
+     * POST /api/projects/import  (Content-Type: text/csv)
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportResultDTO importProjectsCsv(HttpServletRequest request) throws IOException {
+        return importer.importCsv(request.getInputStream());
     }
 
     /**
-     * Get project by ID (with company authorization check)
+     * Change status and/or phase of many projects at once (same company rules as update)
+     * POST /api/projects/bulk-update  {"ids": [...], "filter": {...}, "status": "On Hold", "currPhase": "..."}
+     */
+    @PostMapping("/bulk-update")
+    public BulkUpdateResultDTO bulkUpdate(@Valid @RequestBody BulkUpdateRequest request) {
+        return service.bulkUpdate(request);
+    }
+
+    /**
+     * Get project by ID (with company authorization check), including projDetails.
+     * The ETag comes from the project's version; If-None-Match is checked against the
+     * version column alone before the project is loaded.
      */
     @GetMapping("/{projId}")
-    public ResponseEntity<Project> getProjectById(@PathVariable int projId) {
+    public ResponseEntity<Project> getProjectById(@PathVariable int projId, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = service.getProjectETag(projId).orElse(null);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
+        }
+
         Project project = service.getProjectById(projId);
         if (project.getProjId() == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(project);
+        return ResponseEntity.ok()
+                .eTag(ETags.forProject(project.getProjId(), project.getVersion()))
+                .cacheControl(REVALIDATE)
+                .body(project);
     }
 
     /**
@@ -54,6 +185,21 @@ public class ProjectController {
         return service.updateProject(proj);
     }
 
+    /**
+     * Partially update a project: only the fields in the body change (with company authorization check).
+     * Requires "version" in the body or an If-Match ETag from the last read (428 without either);
+     * 409 Conflict if someone else saved in between. The response carries the new ETag.
+     */
+    @PatchMapping("/{projId}")
+    public ResponseEntity<Project> patchProject(@PathVariable int projId, @RequestBody JsonNode patch,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return service.patchProject(projId, patch, ifMatch)
+                .map(project -> ResponseEntity.ok()
+                        .eTag(ETags.forProject(project.getProjId(), project.getVersion()))
+                        .body(project))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * Delete project (with company authorization check)
      */
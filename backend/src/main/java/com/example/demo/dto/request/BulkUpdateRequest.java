@@ -0,0 +1,31 @@
+package com.example.demo.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of POST /api/projects/bulk-update. Targets the projects in {@code ids}, the
+ * projects matching {@code filter}, or their intersection when both are given.
+ * At least one of status / currPhase must be set.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpdateRequest {
+
+    private List<Integer> ids;
+
+    private ProjectFilter filter;
+
+    @Size(max = 255, message = "Status must not exceed 255 characters")
+    private String status;
+
+    @Size(max = 255, message = "Phase must not exceed 255 characters")
+    private String currPhase;
+}
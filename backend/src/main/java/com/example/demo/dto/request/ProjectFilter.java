@@ -0,0 +1,46 @@
+package com.example.demo.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Query parameters accepted by GET /api/projects.
+ * Every field is optional; unset fields do not restrict the result.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectFilter {
+
+    private String status;
+    private String projType;
+    private String currPhase;
+
+    // Matches projName or projTitle containing the text
+    private String search;
+
+    // Inclusive date ranges (yyyy-MM-dd)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate estCompFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate estCompTo;
+
+    // updatedDate (default) or createdDate
+    private String sort;
+
+    // desc (default) or asc
+    private String order;
+}
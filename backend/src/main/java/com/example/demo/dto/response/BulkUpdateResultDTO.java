@@ -0,0 +1,22 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkUpdateResultDTO {
+
+    // Projects visible to the caller that matched the ids / filter
+    private int matched;
+
+    // Projects whose status or phase actually changed
+    private int updated;
+
+    // Status update emails handed to the mail service
+    private int notified;
+}
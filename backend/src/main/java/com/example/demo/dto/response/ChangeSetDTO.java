@@ -0,0 +1,30 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.model.Project;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of GET /api/projects/changes: projects created or updated and ids of projects
+ * deleted since the cursor, in change order.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeSetDTO {
+
+    private List<Project> updated;
+
+    private List<Integer> deleted;
+
+    // Pass as ?since= on the next poll; always present
+    private String next;
+
+    // True when more changes are already available and the next poll should follow immediately
+    private boolean hasMore;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    // Opaque cursor for the next page, null when there are no more results
+    private String next;
+
+    private int limit;
+
+    public static <T> CursorPage<T> of(List<T> items, String next, int limit) {
+        return CursorPage.<T>builder()
+                .items(items)
+                .next(next)
+                .limit(limit)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportResultDTO {
+
+    private int total;
+    private int created;
+    private int rejected;
+    private List<ImportRowResult> rows;
+}
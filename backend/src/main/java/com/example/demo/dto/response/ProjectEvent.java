@@ -0,0 +1,47 @@
+package com.example.demo.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Change pushed to subscribers of GET /api/projects/stream. The event name is the type.
+ * "refresh" is sent after bulk changes instead of one event per project; clients reload the list.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectEvent {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String REFRESH = "refresh";
+
+    private String type;
+    private Integer projId;
+
+    // Present for created and updated events
+    private ProjectSummaryDTO project;
+
+    // Company whose subscribers receive the event
+    @JsonIgnore
+    private Long companyId;
+
+    public static ProjectEvent of(String type, ProjectSummaryDTO project) {
+        return new ProjectEvent(type, project.getProjId(), project, project.getCompanyId());
+    }
+
+    public static ProjectEvent deleted(int projId, Long companyId) {
+        return new ProjectEvent(DELETED, projId, null, companyId);
+    }
+
+    public static ProjectEvent refresh(Long companyId) {
+        return new ProjectEvent(REFRESH, null, null, companyId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.dto.response;
+
+import com.example.demo.model.Project;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Project as shown in list views: every column except the projDetails text blob.
+ * Built directly by the query (constructor projection), so projDetails is never read.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectSummaryDTO {
+
+    private Integer projId;
+    private String projName;
+    private String clientCompany;
+    private Long companyId;
+    private String clientEmail;
+    private String projType;
+    private String projTitle;
+    private String currPhase;
+    private String status;
+    private Long createdBy;
+    private Boolean emailNotifications;
+    private LocalDateTime startDate;
+    private LocalDateTime estCompDate;
+    private LocalDateTime createdDate;
+    private LocalDateTime updatedDate;
+
+    public static ProjectSummaryDTO of(Project project) {
+        return new ProjectSummaryDTO(project.getProjId(), project.getProjName(), project.getClientCompany(),
+                project.getCompanyId(), project.getClientEmail(), project.getProjType(), project.getProjTitle(),
+                project.getCurrPhase(), project.getStatus(), project.getCreatedBy(), project.getEmailNotifications(),
+                project.getStartDate(), project.getEstCompDate(), project.getCreatedDate(), project.getUpdatedDate());
+    }
+}
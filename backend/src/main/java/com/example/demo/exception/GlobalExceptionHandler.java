@@ -4,9 +4,13 @@ import com.example.demo.dto.response.AuthResponse;
 import com.example.demo.dto.response.MessageResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -69,6 +73,14 @@ public class GlobalExceptionHandler {
                 .body(AuthResponse.error(ex.getMessage()));
     }
 
+    @ExceptionHandler(DisabledException.class)
+    public ResponseEntity<AuthResponse> handleDisabled(DisabledException ex) {
+        logger.warn("Disabled account: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(AuthResponse.error("This account has been disabled"));
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<AuthResponse> handleBadCredentials(BadCredentialsException ex) {
         logger.warn("Bad credentials: {}", ex.getMessage());
@@ -85,6 +97,55 @@ public class GlobalExceptionHandler {
                 .body(AuthResponse.error("Invalid email or password"));
     }
 
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<MessageResponse> handleInvalidQuery(InvalidQueryException ex) {
+        logger.warn("Invalid query: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(MessageResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(SyncCursorExpiredException.class)
+    public ResponseEntity<MessageResponse> handleSyncCursorExpired(SyncCursorExpiredException ex) {
+        logger.warn("Sync cursor expired: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body(MessageResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<MessageResponse> handleServiceBusy(ServiceBusyException ex) {
+        logger.warn("Service busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(MessageResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<MessageResponse> handleAccessDenied(AccessDeniedException ex) {
+        logger.warn("Access denied: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.FORBIDDEN)
+                .body(MessageResponse.error("You do not have access to this resource"));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MessageResponse> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        logger.warn("Version conflict: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(MessageResponse.error("This project was changed by someone else. Reload it and try again."));
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<MessageResponse> handlePreconditionRequired(PreconditionRequiredException ex) {
+        logger.warn("Precondition required: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_REQUIRED)
+                .body(MessageResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
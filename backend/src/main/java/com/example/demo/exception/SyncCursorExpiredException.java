@@ -0,0 +1,16 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The sync cursor predates the tombstone retention window, so deletions may have been missed
+ * and the client has to start over with a full sync.
+ */
+@ResponseStatus(HttpStatus.GONE)
+public class SyncCursorExpiredException extends RuntimeException {
+
+    public SyncCursorExpiredException(String message) {
+        super(message);
+    }
+}
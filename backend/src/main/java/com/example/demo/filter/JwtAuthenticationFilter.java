@@ -1,7 +1,10 @@
 package com.example.demo.filter;
 
+import com.example.demo.model.User;
+import com.example.demo.service.TokenVersionRegistry;
 import com.example.demo.service.UserService;
 import com.example.demo.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -31,6 +35,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Value("${jwt.stateless-principal.enabled:false}")
+    private boolean statelessPrincipal;
+
     @Override
     protected void doFilterInternal(
             @NonNull HttpServletRequest request,
@@ -40,13 +50,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = parseJwt(request);
+            // Verified once per request (or served from the recently-verified cache)
+            Claims claims = jwt != null ? jwtUtil.parseVerifiedClaims(jwt) : null;
 
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
+            if (claims != null) {
+                UserDetails userDetails = resolvePrincipal(claims);
 
-                UserDetails userDetails = userService.loadUserByUsername(email);
-
-                if (jwtUtil.validateToken(jwt, userDetails)) {
+                if (userDetails != null && jwtUtil.validateToken(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails,
@@ -65,6 +75,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * With stateless principals enabled, the user is rebuilt from the signed claims and only
+     * the token version is checked (against an in-memory map). Otherwise, or for tokens
+     * without embedded claims, the user is loaded through UserService. Returns null when
+     * the token has been revoked by a token version bump.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        Integer tokenVersion = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Integer.class);
+
+        if (statelessPrincipal) {
+            User principal = jwtUtil.toPrincipal(claims);
+            if (principal != null) {
+                return tokenVersionRegistry.isCurrent(principal.getId(), tokenVersion) ? principal : null;
+            }
+        }
+
+        UserDetails userDetails = userService.loadUserByUsername(claims.getSubject());
+        if (tokenVersion != null && userDetails instanceof User user
+                && !tokenVersion.equals(user.getTokenVersion())) {
+            return null;
+        }
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -0,0 +1,283 @@
+package com.example.demo.filter;
+
+import com.example.demo.dto.response.MessageResponse;
+import com.example.demo.util.TokenBucketRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the public auth endpoints that are worth abusing: login (password guessing) and
+ * forgot-password / resend-code (each one writes a code and sends an email). Every request
+ * takes a token from the bucket of its client IP and from the bucket of the email in its
+ * body; when either is empty the request is answered with 429 and a Retry-After header
+ * before it reaches the controller. For login the email bucket is per email and client IP,
+ * so nobody can lock an account out from another address; guessing spread over many
+ * addresses is what the per-IP limit is for. The email-sending endpoints keep one bucket
+ * per email, since that bounds the mail a mailbox can be sent.
+ * <p>
+ * The client IP is {@code request.getRemoteAddr()}; behind a proxy, set
+ * {@code server.forward-headers-strategy} so it is the real client address.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+    private static final String FORGOT_PASSWORD_PATH = "/api/auth/forgot-password";
+    private static final String RESEND_CODE_PATH = "/api/auth/resend-code";
+
+    // Auth request bodies are a few hundred bytes; anything bigger is not parsed for an email
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final boolean enabled;
+    private final ObjectMapper objectMapper;
+    private final Limit login;
+    private final Limit mail;
+
+    public RateLimitFilter(
+            @Value("${app.security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.security.rate-limit.login.per-ip:20}") int loginPerIp,
+            @Value("${app.security.rate-limit.login.per-email:10}") int loginPerEmail,
+            @Value("${app.security.rate-limit.login.period:PT5M}") Duration loginPeriod,
+            @Value("${app.security.rate-limit.mail.per-ip:10}") int mailPerIp,
+            @Value("${app.security.rate-limit.mail.per-email:3}") int mailPerEmail,
+            @Value("${app.security.rate-limit.mail.period:PT15M}") Duration mailPeriod,
+            @Value("${app.security.rate-limit.max-keys:100000}") int maxKeys,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.objectMapper = objectMapper;
+        this.login = new Limit("login", loginPerIp, loginPerEmail, true, loginPeriod, maxKeys, meterRegistry);
+        this.mail = new Limit("mail", mailPerIp, mailPerEmail, false, mailPeriod, maxKeys, meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Limit limit = LOGIN_PATH.equals(request.getServletPath()) ? login : mail;
+
+        long waitNanos = limit.byIp.tryAcquire(request.getRemoteAddr());
+        String rejectedBy = "ip";
+
+        // The body is read here to find the email, so the controller gets a replayable copy
+        CachedBodyRequest cached = waitNanos == 0 ? CachedBodyRequest.wrap(request) : null;
+        if (cached != null) {
+            request = cached;
+            String email = cached.complete ? readEmail(cached.body) : null;
+            if (email != null) {
+                waitNanos = limit.byEmail.tryAcquire(limit.emailPerIp ? email + "|" + request.getRemoteAddr() : email);
+                rejectedBy = "email";
+            }
+        }
+
+        if (waitNanos > 0) {
+            limit.rejected(rejectedBy).increment();
+            logger.warn("Rate limited {} request from {} (by {})",
+                    request.getServletPath(), request.getRemoteAddr(), rejectedBy);
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    MessageResponse.error("Too many requests, please try again later"));
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !path.equals(LOGIN_PATH) && !path.equals(FORGOT_PASSWORD_PATH) && !path.equals(RESEND_CODE_PATH);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.evict-interval:PT1M}")
+    public void evictIdle() {
+        login.evictIdle();
+        mail.evictIdle();
+    }
+
+    private String readEmail(byte[] body) {
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email != null && email.isTextual() ? email.asText().trim().toLowerCase() : null;
+        } catch (IOException | RuntimeException e) {
+            // Malformed body: the controller will reject it
+            return null;
+        }
+    }
+
+    /**
+     * Per-IP and per-email buckets for one group of endpoints, with their rejection counters
+     */
+    private static final class Limit {
+
+        private final TokenBucketRateLimiter byIp;
+        private final TokenBucketRateLimiter byEmail;
+        // Email buckets are keyed on email and client IP rather than email alone
+        private final boolean emailPerIp;
+        private final Counter rejectedByIp;
+        private final Counter rejectedByEmail;
+
+        Limit(String endpoint, int perIp, int perEmail, boolean emailPerIp, Duration period, int maxKeys,
+              MeterRegistry meterRegistry) {
+            int stripes = 64;
+            int keysPerStripe = Math.max(1, maxKeys / stripes);
+            this.byIp = new TokenBucketRateLimiter(perIp, period, stripes, keysPerStripe);
+            this.byEmail = new TokenBucketRateLimiter(perEmail, period, stripes, keysPerStripe);
+            this.emailPerIp = emailPerIp;
+            this.rejectedByIp = rejectedCounter(endpoint, "ip", meterRegistry);
+            this.rejectedByEmail = rejectedCounter(endpoint, "email", meterRegistry);
+            Gauge.builder("auth.ratelimit.keys", this, limit -> limit.byIp.size() + limit.byEmail.size())
+                    .description("Clients with a partly used rate limit bucket")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        Counter rejected(String by) {
+            return "ip".equals(by) ? rejectedByIp : rejectedByEmail;
+        }
+
+        void evictIdle() {
+            byIp.evictIdle();
+            byEmail.evictIdle();
+        }
+
+        private static Counter rejectedCounter(String endpoint, String by, MeterRegistry meterRegistry) {
+            return Counter.builder("auth.ratelimit.rejected")
+                    .description("Auth requests refused with 429 by the rate limiter")
+                    .tag("endpoint", endpoint)
+                    .tag("key", by)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Request whose body has been read into memory (up to MAX_BODY_BYTES) and is served again
+     * to the next reader, followed by whatever was left unread.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+        private final boolean complete;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body, boolean complete) {
+            super(request);
+            this.body = body;
+            this.complete = complete;
+        }
+
+        /**
+         * Returns null (leaving the request untouched) if the body is empty or declared too large
+         */
+        static CachedBodyRequest wrap(HttpServletRequest request) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length == 0 || length > MAX_BODY_BYTES) {
+                return null;
+            }
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            return new CachedBodyRequest(request, body, body.length <= MAX_BODY_BYTES);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            InputStream cached = new ByteArrayInputStream(body);
+            return new BodyStream(complete ? cached : new SequenceInputStream(cached, super.getInputStream()));
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class BodyStream extends ServletInputStream {
+
+        private final InputStream in;
+        private boolean finished;
+
+        BodyStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            finished = n < 0;
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * The data is already buffered (or read blocking past the buffer), so the listener is
+         * told straight away that it can read everything
+         */
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                readListener.onDataAvailable();
+                readListener.onAllDataRead();
+            } catch (IOException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
@@ -11,15 +12,34 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "projects")
+@DynamicUpdate // UPDATE statements carry only the columns that changed
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_updated", columnList = "updated_date, proj_id"),
+        @Index(name = "idx_projects_created", columnList = "created_date, proj_id"),
+        @Index(name = "idx_projects_company_updated", columnList = "company_id, updated_date, proj_id"),
+        @Index(name = "idx_projects_company_created", columnList = "company_id, created_date, proj_id"),
+        @Index(name = "idx_projects_company_status", columnList = "company_id, status, updated_date"),
+        @Index(name = "idx_projects_company_type", columnList = "company_id, proj_type, updated_date"),
+        @Index(name = "idx_projects_company_phase", columnList = "company_id, curr_phase, updated_date")
+})
 public class Project {
 
+    // Ids reserved per sequence round trip. IDENTITY would force one INSERT per statement;
+    // a pooled sequence (a table on MySQL) lets Hibernate batch inserts.
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Integer projId;
 
     private String projName;
     private String clientCompany;
+
+    // Owning tenant; all access checks compare this id
+    @Column(name = "company_id")
+    private Long companyId;
+
     private String clientEmail;
     private String projType; // Drug Discovery, Clinical Trial, Manufacturing, etc.
     private String projTitle;
@@ -41,4 +61,8 @@ public class Project {
     private LocalDateTime estCompDate;
     private LocalDateTime createdDate;
     private LocalDateTime updatedDate;
+
+    // Optimistic lock: a write based on an older version fails with 409 instead of overwriting
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted project, kept so delta sync clients learn about the deletion.
+ * Purged after app.projects.changes.tombstone-retention.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "project_tombstones", indexes = {
+        @Index(name = "idx_tombstones_company_deleted", columnList = "company_id, deleted_at, proj_id"),
+        @Index(name = "idx_tombstones_deleted", columnList = "deleted_at, proj_id")
+})
+public class ProjectTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "proj_id", nullable = false)
+    private Integer projId;
+
+    @Column(name = "company_id")
+    private Long companyId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,7 +19,11 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_company", columnList = "company_id"),
+        // Cleanup of abandoned registrations: unverified accounts by age
+        @Index(name = "idx_users_unverified", columnList = "email_verified, created_at")
+})
 public class User implements UserDetails {
 
     @Id
@@ -39,6 +44,9 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private String companyName;
 
+    @Column(name = "company_id")
+    private Long companyId;
+
     @Column(nullable = false)
     @Builder.Default
     private String role = "USER"; // USER or ADMIN
@@ -51,13 +59,10 @@ public class User implements UserDetails {
     @Builder.Default
     private Boolean enabled = false;
 
-    private String verificationCode;
-
-    private LocalDateTime verificationCodeExpiry;
-
-    private String passwordResetCode;
-
-    private LocalDateTime passwordResetCodeExpiry;
+    // Signed into every JWT; incrementing it revokes all previously issued tokens
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
 
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -78,7 +83,7 @@ public class User implements UserDetails {
     // UserDetails implementation
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
     }
 
     @Override
@@ -110,4 +115,12 @@ public class User implements UserDetails {
     public boolean isAdmin() {
         return "ADMIN".equalsIgnoreCase(role);
     }
+
+    // Company a regular user's data is scoped to; without one the user may see nothing
+    public Long requireCompanyId() {
+        if (companyId == null) {
+            throw new AccessDeniedException("User " + email + " is not assigned to a company");
+        }
+        return companyId;
+    }
 }
\ No newline at end of file
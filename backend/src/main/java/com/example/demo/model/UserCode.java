@@ -0,0 +1,57 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One-time code sent to a user by email (email verification or password reset). Only an
+ * HMAC of the code is stored; a user has at most one code per purpose, and expired codes
+ * are removed by AccountCleanupService.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_codes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_codes_user_purpose", columnNames = {"user_id", "purpose"}),
+        indexes = @Index(name = "idx_user_codes_expires", columnList = "expires_at"))
+public class UserCode {
+
+    public static final String VERIFICATION = "VERIFICATION";
+    public static final String PASSWORD_RESET = "PASSWORD_RESET";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String purpose;
+
+    // Hex HMAC-SHA256 of the code, keyed with the server secret and bound to user and purpose
+    @Column(name = "code_hash", nullable = false, length = 64)
+    private String codeHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest updatedDate of a set of projects. Any insert, update or delete in
+ * the set changes at least one of the two, so together they identify its current state.
+ */
+public record ProjectCollectionStamp(Long count, LocalDateTime lastUpdated) {
+}
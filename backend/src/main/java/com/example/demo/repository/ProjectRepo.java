@@ -2,19 +2,111 @@ package com.example.demo.repository;
 
 import com.example.demo.model.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProjectRepo extends JpaRepository<Project, Integer> {
+public interface ProjectRepo extends JpaRepository<Project, Integer>, JpaSpecificationExecutor<Project>,
+        ProjectRepoCustom {
 
-    // Find all projects belonging to a specific company (by clientCompany)
-    List<Project> findByClientCompany(String clientCompany);
+    // Tenant-scoped lookup: a missing or foreign project is a single miss on the primary key
+    Optional<Project> findByProjIdAndCompanyId(Integer projId, Long companyId);
 
-    // Find all projects belonging to a specific company, case-insensitive
-    List<Project> findByClientCompanyIgnoreCase(String clientCompany);
+    // Conditional GET: version and collection stamps are read without loading the entity
+    @Query("SELECT p.version FROM Project p WHERE p.projId = :projId")
+    Optional<Long> findVersionByProjId(@Param("projId") Integer projId);
+
+    @Query("SELECT p.version FROM Project p WHERE p.projId = :projId AND p.companyId = :companyId")
+    Optional<Long> findVersionByProjIdAndCompanyId(@Param("projId") Integer projId, @Param("companyId") Long companyId);
+
+    @Query("SELECT new com.example.demo.repository.ProjectCollectionStamp(COUNT(p), MAX(p.updatedDate)) " +
+            "FROM Project p")
+    ProjectCollectionStamp findCollectionStamp();
+
+    @Query("SELECT new com.example.demo.repository.ProjectCollectionStamp(COUNT(p), MAX(p.updatedDate)) " +
+            "FROM Project p WHERE p.companyId = :companyId")
+    ProjectCollectionStamp findCollectionStampByCompanyId(@Param("companyId") Long companyId);
 
     // Find all projects created by a specific user
     List<Project> findByCreatedBy(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT p.companyId FROM Project p WHERE p.projId = :projId")
+    Optional<Long> findCompanyIdByProjId(@Param("projId") Integer projId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Project p WHERE p.projId = :projId")
+    int deleteByProjId(@Param("projId") Integer projId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Project p WHERE p.projId = :projId AND p.companyId = :companyId")
+    int deleteByProjIdAndCompanyId(@Param("projId") Integer projId, @Param("companyId") Long companyId);
+
+    // Set-based status / phase change; null arguments leave the column as it is.
+    // No tenant restriction: admins only.
+    @Modifying
+    @Query("UPDATE Project p SET p.status = COALESCE(:status, p.status), " +
+            "p.currPhase = COALESCE(:currPhase, p.currPhase), p.updatedDate = :updatedDate, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.projId IN :projIds")
+    int bulkUpdateStatusAndPhase(@Param("projIds") Collection<Integer> projIds,
+                                 @Param("status") String status,
+                                 @Param("currPhase") String currPhase,
+                                 @Param("updatedDate") LocalDateTime updatedDate);
+
+    // Same change restricted to one company's projects
+    @Modifying
+    @Query("UPDATE Project p SET p.status = COALESCE(:status, p.status), " +
+            "p.currPhase = COALESCE(:currPhase, p.currPhase), p.updatedDate = :updatedDate, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.projId IN :projIds AND p.companyId = :companyId")
+    int bulkUpdateStatusAndPhaseForCompany(@Param("projIds") Collection<Integer> projIds,
+                                           @Param("companyId") Long companyId,
+                                           @Param("status") String status,
+                                           @Param("currPhase") String currPhase,
+                                           @Param("updatedDate") LocalDateTime updatedDate);
+
+    // Company id backfill for projects stored before companies were normalized
+    @Query("SELECT DISTINCT p.clientCompany FROM Project p WHERE p.companyId IS NULL AND p.clientCompany IS NOT NULL")
+    List<String> findClientCompaniesWithoutCompanyId();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Project p SET p.companyId = :companyId WHERE p.clientCompany = :clientCompany AND p.companyId IS NULL")
+    int assignCompanyId(@Param("clientCompany") String clientCompany, @Param("companyId") Long companyId);
+
+    // Rows created before updatedDate was always populated would otherwise fall out of keyset pages
+    @Modifying
+    @Transactional
+    @Query("UPDATE Project p SET p.updatedDate = COALESCE(p.createdDate, LOCAL_DATETIME) " +
+            "WHERE p.updatedDate IS NULL")
+    int backfillUpdatedDate();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Project p SET p.createdDate = p.updatedDate WHERE p.createdDate IS NULL")
+    int backfillCreatedDate();
+
+    // Rows created before the version column existed start at version 0
+    @Modifying
+    @Transactional
+    @Query("UPDATE Project p SET p.version = 0 WHERE p.version IS NULL")
+    int backfillVersion();
+
+    // Move the id sequence past ids handed out by the former AUTO_INCREMENT column (MySQL table sequence)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE project_seq SET next_val = GREATEST(next_val, " +
+            "(SELECT COALESCE(MAX(proj_id), 0) + :allocationSize + 1 FROM projects))", nativeQuery = true)
+    int alignIdSequence(@Param("allocationSize") int allocationSize);
+}
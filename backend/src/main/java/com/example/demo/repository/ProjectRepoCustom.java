@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.model.Project;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Queries on {@link ProjectRepo} that Spring Data cannot derive
+ */
+public interface ProjectRepoCustom {
+
+    /**
+     * Projects matching the specification as list-view summaries, selecting only the
+     * summary columns (projDetails is not read).
+     */
+    List<ProjectSummaryDTO> findSummaries(Specification<Project> spec, Sort sort, int limit);
+
+    /**
+     * Streams matching projects with the given JDBC fetch size. Each entity is detached as
+     * soon as it is read, so the persistence context does not grow with the result.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<Project> streamAll(Specification<Project> spec, Sort sort, int fetchSize);
+}
@@ -0,0 +1,76 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.model.Project;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+class ProjectRepoCustomImpl implements ProjectRepoCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProjectSummaryDTO> findSummaries(Specification<Project> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProjectSummaryDTO> query = cb.createQuery(ProjectSummaryDTO.class);
+        Root<Project> root = query.from(Project.class);
+
+        query.select(cb.construct(ProjectSummaryDTO.class,
+                root.get("projId"),
+                root.get("projName"),
+                root.get("clientCompany"),
+                root.get("companyId"),
+                root.get("clientEmail"),
+                root.get("projType"),
+                root.get("projTitle"),
+                root.get("currPhase"),
+                root.get("status"),
+                root.get("createdBy"),
+                root.get("emailNotifications"),
+                root.get("startDate"),
+                root.get("estCompDate"),
+                root.get("createdDate"),
+                root.get("updatedDate")));
+
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Project> streamAll(Specification<Project> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Project> query = cb.createQuery(Project.class);
+        Root<Project> root = query.from(Project.class);
+
+        if (spec != null) {
+            query.where(spec.toPredicate(root, query, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(project -> {
+                    entityManager.detach(project);
+                    return project;
+                });
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.exception.InvalidQueryException;
+
+/**
+ * Columns the project list can be ordered by. Only non-null timestamp columns are
+ * offered so that keyset pagination on (column, projId) stays exact.
+ */
+public enum ProjectSort {
+
+    UPDATED_DATE("updatedDate"),
+    CREATED_DATE("createdDate");
+
+    private final String property;
+
+    ProjectSort(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static ProjectSort fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return UPDATED_DATE;
+        }
+        for (ProjectSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(param)) {
+                return sort;
+            }
+        }
+        throw new InvalidQueryException("Unsupported sort field: " + param);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.model.Project;
+import com.example.demo.util.ProjectCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reusable query predicates for {@link Project}. Each method returns null when its
+ * argument is empty, which {@link Specification#where} and {@code and} treat as "no restriction".
+ */
+public final class ProjectSpecifications {
+
+    private ProjectSpecifications() {
+    }
+
+    /**
+     * Combines every filter in the request into one specification
+     */
+    public static Specification<Project> matching(ProjectFilter filter) {
+        return Specification.where(hasStatus(filter.getStatus()))
+                .and(hasProjType(filter.getProjType()))
+                .and(inPhase(filter.getCurrPhase()))
+                .and(between("startDate", filter.getStartFrom(), filter.getStartTo()))
+                .and(between("estCompDate", filter.getEstCompFrom(), filter.getEstCompTo()))
+                .and(containsText(filter.getSearch()));
+    }
+
+    public static Specification<Project> belongsToCompany(Long companyId) {
+        return (root, query, cb) -> cb.equal(root.get("companyId"), companyId);
+    }
+
+    public static Specification<Project> idIn(Collection<Integer> projIds) {
+        if (projIds == null || projIds.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("projId").in(projIds);
+    }
+
+    public static Specification<Project> hasStatus(String status) {
+        return equalTo("status", status);
+    }
+
+    public static Specification<Project> hasProjType(String projType) {
+        return equalTo("projType", projType);
+    }
+
+    public static Specification<Project> inPhase(String currPhase) {
+        return equalTo("currPhase", currPhase);
+    }
+
+    /**
+     * Inclusive date range on a timestamp column. Either end may be open.
+     */
+    public static Specification<Project> between(String property, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get(property), to.plusDays(1).atStartOfDay());
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get(property), from.atStartOfDay());
+            }
+            return cb.and(
+                    cb.greaterThanOrEqualTo(root.get(property), from.atStartOfDay()),
+                    cb.lessThan(root.get(property), to.plusDays(1).atStartOfDay()));
+        };
+    }
+
+    public static Specification<Project> updatedAtOrBefore(LocalDateTime until) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("updatedDate"), until);
+    }
+
+    public static Specification<Project> containsText(String text) {
+        if (!StringUtils.hasText(text)) {
+            return null;
+        }
+        String pattern = "%" + text.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("projName")), pattern, '!'),
+                cb.like(cb.lower(root.get("projTitle")), pattern, '!'));
+    }
+
+    /**
+     * Keyset predicate: rows strictly after the cursor in (sort column, projId) order
+     */
+    public static Specification<Project> after(ProjectCursor cursor, ProjectSort sort, Sort.Direction direction) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            LocalDateTime value = cursor.value();
+            if (direction.isDescending()) {
+                return cb.or(
+                        cb.lessThan(root.get(sort.getProperty()), value),
+                        cb.and(cb.equal(root.get(sort.getProperty()), value),
+                                cb.lessThan(root.get("projId"), cursor.projId())));
+            }
+            return cb.or(
+                    cb.greaterThan(root.get(sort.getProperty()), value),
+                    cb.and(cb.equal(root.get(sort.getProperty()), value),
+                            cb.greaterThan(root.get("projId"), cursor.projId())));
+        };
+    }
+
+    /**
+     * Order matching {@link #after}: sort column first, projId as tie-breaker
+     */
+    public static Sort orderBy(ProjectSort sort, Sort.Direction direction) {
+        return Sort.by(direction, sort.getProperty(), "projId");
+    }
+
+    private static Specification<Project> equalTo(String property, String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(property), value);
+    }
+}
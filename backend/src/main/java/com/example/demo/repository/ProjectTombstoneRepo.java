@@ -0,0 +1,36 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ProjectTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProjectTombstoneRepo extends JpaRepository<ProjectTombstone, Long> {
+
+    // Deletions after the (deletedAt, projId) position, up to and including :until
+    @Query("SELECT t FROM ProjectTombstone t WHERE t.deletedAt <= :until " +
+            "AND (t.deletedAt > :at OR (t.deletedAt = :at AND t.projId > :projId)) " +
+            "ORDER BY t.deletedAt, t.projId")
+    List<ProjectTombstone> findAfter(@Param("at") LocalDateTime at, @Param("projId") int projId,
+                                     @Param("until") LocalDateTime until, Limit limit);
+
+    @Query("SELECT t FROM ProjectTombstone t WHERE t.companyId = :companyId AND t.deletedAt <= :until " +
+            "AND (t.deletedAt > :at OR (t.deletedAt = :at AND t.projId > :projId)) " +
+            "ORDER BY t.deletedAt, t.projId")
+    List<ProjectTombstone> findAfterForCompany(@Param("companyId") Long companyId,
+                                               @Param("at") LocalDateTime at, @Param("projId") int projId,
+                                               @Param("until") LocalDateTime until, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProjectTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,31 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.StatusChange;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatusChangeRepo extends JpaRepository<StatusChange, Long> {
+
+    // Recipients whose oldest pending change has waited out the digest window
+    @Query("SELECT c.recipient FROM StatusChange c GROUP BY c.recipient HAVING MIN(c.changedAt) <= :cutoff " +
+            "ORDER BY MIN(c.changedAt)")
+    List<String> findDueRecipients(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    // All pending changes of the recipients, oldest first; rows locked by another instance are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT c FROM StatusChange c WHERE c.recipient IN :recipients ORDER BY c.id")
+    List<StatusChange> findByRecipientsForUpdate(@Param("recipients") Collection<String> recipients);
+}
@@ -0,0 +1,48 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.UserCode;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserCodeRepo extends JpaRepository<UserCode, Long> {
+
+    Optional<UserCode> findByUserIdAndPurpose(Long userId, String purpose);
+
+    // Insert or replace the user's code for the purpose in one statement, so concurrent
+    // resends cannot both insert and trip uk_user_codes_user_purpose
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_codes (user_id, purpose, code_hash, expires_at, created_at) " +
+            "VALUES (:userId, :purpose, :codeHash, :expiresAt, :now) " +
+            "ON DUPLICATE KEY UPDATE code_hash = VALUES(code_hash), expires_at = VALUES(expires_at), " +
+            "created_at = VALUES(created_at)", nativeQuery = true)
+    int upsert(@Param("userId") Long userId, @Param("purpose") String purpose, @Param("codeHash") String codeHash,
+               @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    // Insert only if the user has no code for the purpose yet; an existing one is newer
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO user_codes (user_id, purpose, code_hash, expires_at, created_at) " +
+            "VALUES (:userId, :purpose, :codeHash, :expiresAt, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("purpose") String purpose, @Param("codeHash") String codeHash,
+                       @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c.id FROM UserCode c WHERE c.expiresAt < :now ORDER BY c.expiresAt")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    // Codes left behind by deleted users
+    @Modifying
+    @Query("DELETE FROM UserCode c WHERE c.userId IN :userIds AND NOT EXISTS (SELECT u.id FROM User u WHERE u.id = c.userId)")
+    int deleteOrphanedByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
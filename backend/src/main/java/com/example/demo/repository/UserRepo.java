@@ -1,9 +1,17 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,7 +21,24 @@ public interface UserRepo extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
-    Optional<User> findByVerificationCode(String code);
+    // Accounts that were never verified, oldest first (cleanup of abandoned registrations)
+    @Query("SELECT u.id FROM User u WHERE u.emailVerified = false AND u.createdAt < :cutoff ORDER BY u.createdAt")
+    List<Long> findUnverifiedIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
 
-    Optional<User> findByPasswordResetCode(String code);
+    // Re-checks the verified flag, so an account verified since it was selected is kept
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids AND u.emailVerified = false")
+    int deleteUnverifiedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Company id backfill for users registered before companies were normalized
+    @Query("SELECT DISTINCT u.companyName FROM User u WHERE u.companyId IS NULL")
+    List<String> findCompanyNamesWithoutCompanyId();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.companyId = :companyId WHERE u.companyName = :companyName AND u.companyId IS NULL")
+    int assignCompanyId(@Param("companyName") String companyName, @Param("companyId") Long companyId);
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserCode;
+import com.example.demo.repository.UserCodeRepo;
+import com.example.demo.repository.UserRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Deletes expired one-time codes and accounts that were never verified. Work is done in
+ * chunks of batch-size rows, each in its own short transaction that deletes by primary key,
+ * so only the chunk's rows are locked and sign-ups, logins and verifications carry on meanwhile.
+ */
+@Service
+public class AccountCleanupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountCleanupService.class);
+
+    private final UserCodeRepo userCodeRepo;
+    private final UserCodeService userCodeService;
+    private final UserRepo userRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter codesDeleted;
+    private final Counter accountsDeleted;
+
+    @Value("${app.security.cleanup.batch-size:500}")
+    private int batchSize;
+
+    // Zero keeps unverified accounts forever
+    @Value("${app.security.cleanup.unverified-account-ttl:P7D}")
+    private Duration unverifiedAccountTtl;
+
+    public AccountCleanupService(UserCodeRepo userCodeRepo,
+                                 UserCodeService userCodeService,
+                                 UserRepo userRepo,
+                                 TransactionTemplate transactionTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.userCodeRepo = userCodeRepo;
+        this.userCodeService = userCodeService;
+        this.userRepo = userRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.codesDeleted = Counter.builder("auth.cleanup.codes")
+                .description("Expired verification and reset codes deleted")
+                .register(meterRegistry);
+        this.accountsDeleted = Counter.builder("auth.cleanup.accounts")
+                .description("Unverified accounts deleted")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.cleanup.interval:PT10M}")
+    public void sweep() {
+        int codes = deleteExpiredCodes();
+        int accounts = unverifiedAccountTtl.isZero() ? 0 : deleteUnverifiedAccounts();
+        if (codes > 0 || accounts > 0) {
+            logger.info("Cleanup deleted {} expired codes and {} unverified accounts", codes, accounts);
+        }
+    }
+
+    /**
+     * Earlier versions kept codes in plaintext columns on users. Unexpired ones are copied
+     * into user_codes on startup, so codes emailed before an upgrade keep working. The columns
+     * are left alone: instances still on the old version read them during a rolling deploy.
+     * Once every instance is upgraded, db/drop-legacy-user-code-columns.sql removes them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void importLegacyCodes() {
+        Set<String> present = jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            Set<String> found = new HashSet<>();
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), connection.getSchema(), "users", null)) {
+                while (columns.next()) {
+                    found.add(columns.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+            return found;
+        });
+        if (present == null) {
+            return;
+        }
+        // Verified accounts have already used their verification code
+        importLegacyCodes(present, UserCode.VERIFICATION, "verification_code", " AND email_verified = FALSE");
+        importLegacyCodes(present, UserCode.PASSWORD_RESET, "password_reset_code", "");
+    }
+
+    private void importLegacyCodes(Set<String> present, String purpose, String codeColumn, String extraCondition) {
+        String expiryColumn = codeColumn + "_expiry";
+        if (!present.contains(codeColumn) || !present.contains(expiryColumn)) {
+            return;
+        }
+        int[] imported = {0};
+        jdbcTemplate.query("SELECT id, " + codeColumn + ", " + expiryColumn + " FROM users WHERE "
+                        + codeColumn + " IS NOT NULL AND " + expiryColumn + " > ?" + extraCondition,
+                row -> {
+                    if (userCodeService.importLegacy(row.getLong(1), purpose, row.getString(2),
+                            row.getTimestamp(3).toLocalDateTime())) {
+                        imported[0]++;
+                    }
+                },
+                LocalDateTime.now());
+        if (imported[0] > 0) {
+            logger.info("Imported {} unexpired {} codes from users.{}", imported[0], purpose, codeColumn);
+        }
+    }
+
+    private int deleteExpiredCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = userCodeRepo.findExpiredIds(now, Limit.of(batchSize));
+                if (!ids.isEmpty()) {
+                    userCodeRepo.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            codesDeleted.increment(count);
+            if (count < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    private int deleteUnverifiedAccounts() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(unverifiedAccountTtl);
+        int total = 0;
+        while (true) {
+            int[] result = transactionTemplate.execute(status -> {
+                List<Long> ids = userRepo.findUnverifiedIdsCreatedBefore(cutoff, Limit.of(batchSize));
+                if (ids.isEmpty()) {
+                    return new int[] {0, 0};
+                }
+                int users = userRepo.deleteUnverifiedByIdIn(ids);
+                userCodeRepo.deleteOrphanedByUserIdIn(ids);
+                return new int[] {ids.size(), users};
+            });
+            int selected = result != null ? result[0] : 0;
+            int deleted = result != null ? result[1] : 0;
+            total += deleted;
+            accountsDeleted.increment(deleted);
+            if (selected < batchSize) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Company;
+import com.example.demo.repository.CompanyRepo;
+import com.example.demo.repository.ProjectRepo;
+import com.example.demo.repository.UserRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class CompanyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompanyService.class);
+
+    @Autowired
+    private CompanyRepo companyRepository;
+
+    @Autowired
+    private UserRepo userRepository;
+
+    @Autowired
+    private ProjectRepo projectRepository;
+
+    private final TransactionTemplate newTransaction;
+
+    @Autowired
+    public CompanyService(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Returns the id of the company with this name, creating it on first use.
+     * The insert runs in its own transaction so a concurrent registration for the
+     * same company (unique constraint violation) does not roll back the caller.
+     */
+    public Long resolveCompanyId(String companyName) {
+        String name = companyName.trim();
+        return companyRepository.findByName(name)
+                .map(Company::getId)
+                .orElseGet(() -> createCompany(name));
+    }
+
+    private Long createCompany(String name) {
+        try {
+            Long id = newTransaction.execute(status ->
+                    companyRepository.saveAndFlush(Company.builder().name(name).build()).getId());
+            logger.info("Created company '{}' (ID: {})", name, id);
+            return id;
+        } catch (DataIntegrityViolationException e) {
+            // Another request created it first
+            return companyRepository.findByName(name)
+                    .map(Company::getId)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Assign company ids to users and projects stored before companies were normalized
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCompanyIds() {
+        int users = 0;
+        for (String name : userRepository.findCompanyNamesWithoutCompanyId()) {
+            users += userRepository.assignCompanyId(name, resolveCompanyId(name));
+        }
+
+        int projects = 0;
+        for (String name : projectRepository.findClientCompaniesWithoutCompanyId()) {
+            projects += projectRepository.assignCompanyId(name, resolveCompanyId(name));
+        }
+
+        if (users > 0 || projects > 0) {
+            logger.info("Backfilled company ids on {} users and {} projects", users, projects);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.demo.service;
+
+import com.example.demo.config.EmailExecutorConfig;
+import com.example.demo.model.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued emails from the outbox table.
+ * <p>
+ * A batch of due rows is claimed with SELECT ... FOR UPDATE SKIP LOCKED and leased by moving
+ * its next attempt time forward, so several instances can dispatch without sending the same
+ * email twice. The batch goes out as one {@link JavaMailSender#send(MimeMessage...)} call over
+ * a single SMTP connection. Delivered rows are marked SENT in one UPDATE; failed ones are
+ * retried with exponential backoff until the attempt limit, then marked FAILED.
+ * <p>
+ * Work runs on the bounded email executor, woken after each commit that queues email and
+ * on a timer. Each task claims and sends one batch; a full batch starts another task for the
+ * next one, so up to the executor's thread count batches are sent in parallel.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final EmailOutboxRepo outboxRepo;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String fromEmail;
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final TaskExecutor executor;
+
+    private final AtomicBoolean dispatchPending = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retryCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public EmailOutboxDispatcher(EmailOutboxRepo outboxRepo,
+                                 JavaMailSender mailSender,
+                                 TransactionTemplate transactionTemplate,
+                                 @Qualifier(EmailExecutorConfig.EMAIL_EXECUTOR) TaskExecutor executor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.mail.username}") String fromEmail,
+                                 @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${app.mail.outbox.lease:PT5M}") Duration lease,
+                                 @Value("${app.mail.outbox.initial-backoff:PT30S}") Duration initialBackoff,
+                                 @Value("${app.mail.outbox.max-backoff:PT1H}") Duration maxBackoff,
+                                 @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.mail.outbox.retention:P7D}") Duration retention) {
+        this.outboxRepo = outboxRepo;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.fromEmail = fromEmail;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+        this.executor = executor;
+
+        this.sendTimer = Timer.builder("email.send")
+                .description("Time to deliver one batch of emails over an SMTP connection")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("email.sent")
+                .description("Emails delivered")
+                .register(meterRegistry);
+        this.retryCounter = Counter.builder("email.send.failures")
+                .tag("outcome", "retry")
+                .description("Failed email deliveries")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("email.send.failures")
+                .tag("outcome", "gave_up")
+                .description("Failed email deliveries")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("email.executor.rejected")
+                .description("Dispatch runs skipped because the email executor was full")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Emails waiting in the outbox, as of the last poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start a dispatch task on the email executor unless one is already waiting to start.
+     * Never blocks: if the executor is full the outbox is left for the next poll.
+     */
+    public void dispatchSoon() {
+        if (!dispatchPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::dispatchBatch);
+        } catch (TaskRejectedException e) {
+            dispatchPending.set(false);
+            rejectedCounter.increment();
+            logger.debug("Email executor is full; leaving the outbox for the next poll");
+        }
+    }
+
+    // Picks up retries, and emails left behind by a crash or another instance's expired lease
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT5S}")
+    public void poll() {
+        try {
+            pending.set(outboxRepo.countByStatus(EmailOutbox.PENDING));
+        } catch (DataAccessException e) {
+            logger.warn("Could not count pending emails: {}", e.getMessage());
+        }
+        dispatchSoon();
+    }
+
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeFinished() {
+        int purged = outboxRepo.deleteFinishedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} sent or failed emails from the outbox", purged);
+        }
+    }
+
+    private void dispatchBatch() {
+        // Cleared first so emails queued while this batch is sending start another task
+        dispatchPending.set(false);
+        try {
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.size() == batchSize) {
+                // Probably more due: let another thread claim the next batch while this one sends
+                dispatchSoon();
+            }
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+        } catch (DataAccessException e) {
+            logger.error("Email outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = outboxRepo.findDueForUpdate(now, Limit.of(batchSize));
+            // Managed entities: the new time is flushed when the claim commits, releasing the row locks
+            due.forEach(email -> email.setNextAttemptAt(now.plus(lease)));
+            return due;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    private void deliver(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>(); // MimeMessage keys compare by identity
+        for (EmailOutbox email : batch) {
+            try {
+                messages.put(toMimeMessage(email), email);
+            } catch (MessagingException e) {
+                // Malformed address or content; retrying will not help
+                markFailed(email, e, true);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        List<Long> sent = new ArrayList<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            messages.values().forEach(email -> sent.add(email.getId()));
+        } catch (MailSendException e) {
+            // Per-message failures; a connection failure lists every message
+            Map<Object, Exception> failed = e.getFailedMessages();
+            messages.forEach((message, email) -> {
+                if (failed.containsKey(message)) {
+                    markFailed(email, failed.get(message), false);
+                } else {
+                    sent.add(email.getId());
+                }
+            });
+        } catch (MailException e) {
+            messages.values().forEach(email -> markFailed(email, e, false));
+        } finally {
+            sample.stop(sendTimer);
+        }
+
+        if (!sent.isEmpty()) {
+            outboxRepo.markSent(sent, LocalDateTime.now());
+            sentCounter.increment(sent.size());
+        }
+        logger.info("Email outbox batch: {} sent, {} failed", sent.size(), batch.size() - sent.size());
+    }
+
+    private MimeMessage toMimeMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), true);
+        return message;
+    }
+
+    private void markFailed(EmailOutbox email, Exception error, boolean permanent) {
+        int attempts = email.getAttempts() + 1;
+        String reason = String.valueOf(error.getMessage());
+        if (reason.length() > MAX_ERROR_LENGTH) {
+            reason = reason.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (permanent || attempts >= maxAttempts) {
+            failedCounter.increment();
+            logger.error("Giving up on {} email to {} after {} attempts: {}",
+                    email.getType(), email.getRecipient(), attempts, reason);
+            outboxRepo.markAttemptFailed(email.getId(), EmailOutbox.FAILED, attempts, email.getNextAttemptAt(), reason);
+            return;
+        }
+
+        retryCounter.increment();
+        LocalDateTime retryAt = LocalDateTime.now().plus(backoff(attempts));
+        logger.warn("Failed to send {} email to {} (attempt {}), retrying at {}: {}",
+                email.getType(), email.getRecipient(), attempts, retryAt, reason);
+        outboxRepo.markAttemptFailed(email.getId(), EmailOutbox.PENDING, attempts, retryAt, reason);
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    private Duration backoff(int attempts) {
+        int doublings = Math.min(attempts - 1, 30);
+        Duration delay = initialBackoff.multipliedBy(1L << doublings);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
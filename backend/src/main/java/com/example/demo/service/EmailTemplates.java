@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.util.HtmlTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Email bodies, from the HTML templates in resources/email. Each template is compiled once at
+ * startup with the app name and frontend URL already filled in; the status update template is
+ * also pre-bound for each status color, so rendering only escapes and copies the per-email values.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final String ROWS_MARKER = "<!-- rows -->";
+
+    private static final String DEFAULT_STATUS_COLOR = "#6b7280"; // gray
+
+    private static final Map<String, String> STATUS_COLORS = Map.of(
+            "active", "#22c55e", // green
+            "on hold", "#f59e0b", // yellow/amber
+            "completed", "#3b82f6", // blue
+            "cancelled", "#ef4444" // red
+    );
+
+    private final HtmlTemplate verification;
+    private final HtmlTemplate passwordReset;
+    private final Map<String, HtmlTemplate> statusUpdateByColor = new HashMap<>();
+    private final HtmlTemplate statusDigestHead;
+    private final HtmlTemplate statusDigestRow;
+    private final HtmlTemplate statusDigestTail;
+
+    public EmailTemplates(@Value("${app.name:Project Tracker}") String appName,
+                          @Value("${app.frontend.url:http://localhost:5173}") String frontendUrl) throws IOException {
+        verification = load("verification", "appName", "firstName", "code")
+                .bind("appName", appName);
+        passwordReset = load("password-reset", "appName", "firstName", "code")
+                .bind("appName", appName);
+
+        HtmlTemplate statusUpdate = load("status-update",
+                "appName", "frontendUrl", "statusColor", "projectName", "oldStatus", "newStatus")
+                .bind("appName", appName)
+                .bind("frontendUrl", frontendUrl);
+        statusUpdateByColor.put(DEFAULT_STATUS_COLOR, statusUpdate.bind("statusColor", DEFAULT_STATUS_COLOR));
+        STATUS_COLORS.values().forEach(color -> statusUpdateByColor.put(color, statusUpdate.bind("statusColor", color)));
+
+        // The digest repeats a row template between a head and a tail, split at the rows marker
+        String[] digest = splitAtRowsMarker(read("status-digest"));
+        statusDigestHead = HtmlTemplate.compile(digest[0], "appName", "count")
+                .bind("appName", appName);
+        statusDigestTail = HtmlTemplate.compile(digest[1], "appName", "frontendUrl")
+                .bind("appName", appName)
+                .bind("frontendUrl", frontendUrl);
+        statusDigestRow = load("status-digest-row", "projectName", "oldStatus", "statusColor", "newStatus");
+    }
+
+    public String verification(String firstName, String code) {
+        return verification.render(firstName, code);
+    }
+
+    public String passwordReset(String firstName, String code) {
+        return passwordReset.render(firstName, code);
+    }
+
+    public String statusUpdate(String projectName, String oldStatus, String newStatus) {
+        return statusUpdateByColor.get(statusColor(newStatus)).render(projectName, oldStatus, newStatus);
+    }
+
+    /**
+     * One email listing the status changes of several projects
+     */
+    public String statusDigest(List<EmailService.StatusUpdate> updates) {
+        StringBuilder out = new StringBuilder(4096 + 512 * updates.size());
+        statusDigestHead.renderTo(out, String.valueOf(updates.size()));
+        for (EmailService.StatusUpdate update : updates) {
+            statusDigestRow.renderTo(out, update.projectName(), update.oldStatus(),
+                    statusColor(update.newStatus()), update.newStatus());
+        }
+        statusDigestTail.renderTo(out);
+        return out.toString();
+    }
+
+    static String statusColor(String status) {
+        if (status == null) {
+            return DEFAULT_STATUS_COLOR;
+        }
+        return STATUS_COLORS.getOrDefault(status.toLowerCase(), DEFAULT_STATUS_COLOR);
+    }
+
+    /**
+     * Head and tail of the digest. The marker sits on its own line, which is dropped with
+     * its line break whether the file was saved with LF or CRLF endings.
+     */
+    static String[] splitAtRowsMarker(String digest) {
+        int start = digest.indexOf(ROWS_MARKER);
+        if (start < 0) {
+            throw new IllegalStateException("email/status-digest.html has no " + ROWS_MARKER + " marker");
+        }
+        int end = start + ROWS_MARKER.length();
+        if (digest.startsWith("\r\n", end)) {
+            end += 2;
+        } else if (digest.startsWith("\n", end)) {
+            end += 1;
+        }
+        return new String[] {digest.substring(0, start), digest.substring(end)};
+    }
+
+    private static HtmlTemplate load(String name, String... variables) throws IOException {
+        return HtmlTemplate.compile(read(name), variables);
+    }
+
+    private static String read(String name) throws IOException {
+        return new ClassPathResource("email/" + name + ".html").getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Short-lived cache of authenticated users keyed by (lower-case) email, so that
+ * resolving the principal of a JWT request does not hit the users table every time.
+ * UserService evicts an entry whenever the password, role, company or enabled flag changes.
+ */
+@Component
+public class PrincipalCache {
+
+    private final BoundedCache<String, User> cache;
+
+    public PrincipalCache(
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize,
+            @Value("${app.security.principal-cache.ttl:PT1M}") Duration ttl) {
+        this.cache = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        return Optional.ofNullable(cache.get(key(email), key -> loader.apply(key).orElse(null)));
+    }
+
+    /**
+     * Evict the user. Inside a transaction the entry is evicted again once it commits:
+     * a request arriving before the commit reloads the old row, which must not stay
+     * cached for the TTL.
+     */
+    public void invalidate(String email) {
+        String key = key(email);
+        cache.invalidate(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private String key(String email) {
+        return email.toLowerCase();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.ChangeSetDTO;
+import com.example.demo.exception.InvalidQueryException;
+import com.example.demo.exception.SyncCursorExpiredException;
+import com.example.demo.model.Project;
+import com.example.demo.model.ProjectTombstone;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProjectRepo;
+import com.example.demo.repository.ProjectSort;
+import com.example.demo.repository.ProjectSpecifications;
+import com.example.demo.repository.ProjectTombstoneRepo;
+import com.example.demo.util.ProjectCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Delta sync: projects created or updated, and projects deleted, after a cursor.
+ * Both are read in (timestamp, projId) order over the company-leading indexes and merged,
+ * so a poll reads only the rows that changed. Changes younger than the settle time are held
+ * back until the next poll, so a write that commits late is not skipped by a cursor that
+ * has already moved past its timestamp.
+ */
+@Service
+public class ProjectChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectChangeFeed.class);
+
+    // Cursor position before every change (first sync)
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepo repo;
+
+    @Autowired
+    private ProjectTombstoneRepo tombstoneRepo;
+
+    @Value("${app.projects.changes.default-size:500}")
+    private int defaultSize;
+
+    @Value("${app.projects.changes.max-size:1000}")
+    private int maxSize;
+
+    @Value("${app.projects.changes.settle-time:PT2S}")
+    private Duration settleTime;
+
+    @Value("${app.projects.changes.tombstone-retention:P30D}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Changes after the cursor (all projects when it is absent) visible to the current user.
+     * A regular user without a company is refused rather than given the unscoped feed.
+     */
+    @Transactional(readOnly = true)
+    public ChangeSetDTO changesSince(String since, Integer limit) {
+        User currentUser = projectService.getCurrentUser();
+        boolean admin = currentUser.isAdmin();
+        Long companyId = admin ? null : currentUser.requireCompanyId();
+        int size = resolveSize(limit);
+
+        ProjectCursor cursor = ProjectCursor.decode(since, ProjectSort.UPDATED_DATE, Sort.Direction.ASC);
+        LocalDateTime now = LocalDateTime.now();
+        if (cursor != null && cursor.value().isBefore(now.minus(tombstoneRetention))) {
+            throw new SyncCursorExpiredException("Cursor is older than " + tombstoneRetention.toDays()
+                    + " days; deletions may have been purged. Sync again without ?since=");
+        }
+
+        LocalDateTime until = now.minus(settleTime);
+        if (cursor != null && !cursor.value().isBefore(until)) {
+            return ChangeSetDTO.builder().updated(List.of()).deleted(List.of()).next(since).build();
+        }
+
+        Specification<Project> spec = Specification.where(ProjectSpecifications.after(
+                        cursor, ProjectSort.UPDATED_DATE, Sort.Direction.ASC))
+                .and(ProjectSpecifications.updatedAtOrBefore(until));
+        if (!admin) {
+            spec = spec.and(ProjectSpecifications.belongsToCompany(companyId));
+        }
+        List<Project> projects = repo.findBy(spec, q -> q
+                .sortBy(ProjectSpecifications.orderBy(ProjectSort.UPDATED_DATE, Sort.Direction.ASC))
+                .limit(size + 1)
+                .all());
+
+        LocalDateTime at = cursor == null ? EPOCH : cursor.value();
+        int afterId = cursor == null ? 0 : cursor.projId();
+        List<ProjectTombstone> tombstones = admin
+                ? tombstoneRepo.findAfter(at, afterId, until, Limit.of(size + 1))
+                : tombstoneRepo.findAfterForCompany(companyId, at, afterId, until, Limit.of(size + 1));
+
+        // Merge both streams in (timestamp, projId) order, up to the page size
+        List<Project> updated = new ArrayList<>();
+        List<Integer> deleted = new ArrayList<>();
+        LocalDateTime lastAt = null;
+        int lastId = 0;
+        int p = 0;
+        int t = 0;
+        while (updated.size() + deleted.size() < size && (p < projects.size() || t < tombstones.size())) {
+            boolean takeProject = t >= tombstones.size()
+                    || (p < projects.size() && comesFirst(projects.get(p), tombstones.get(t)));
+            if (takeProject) {
+                Project project = projects.get(p++);
+                updated.add(project);
+                lastAt = project.getUpdatedDate();
+                lastId = project.getProjId();
+            } else {
+                ProjectTombstone tombstone = tombstones.get(t++);
+                deleted.add(tombstone.getProjId());
+                lastAt = tombstone.getDeletedAt();
+                lastId = tombstone.getProjId();
+            }
+        }
+
+        boolean hasMore = p < projects.size() || t < tombstones.size();
+        // When caught up, move the cursor to the settle boundary so the next poll starts there
+        ProjectCursor next = hasMore
+                ? new ProjectCursor(ProjectSort.UPDATED_DATE, Sort.Direction.ASC, lastAt, lastId)
+                : new ProjectCursor(ProjectSort.UPDATED_DATE, Sort.Direction.ASC, until, Integer.MAX_VALUE);
+
+        logger.debug("User {} synced {} updated and {} deleted projects (more: {})",
+                currentUser.getEmail(), updated.size(), deleted.size(), hasMore);
+        return ChangeSetDTO.builder()
+                .updated(updated)
+                .deleted(deleted)
+                .next(next.encode())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Drop tombstones past the retention window; cursors that old are refused with 410
+     */
+    @Scheduled(cron = "${app.projects.changes.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepo.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            logger.info("Purged {} project tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private static boolean comesFirst(Project project, ProjectTombstone tombstone) {
+        int byTime = project.getUpdatedDate().compareTo(tombstone.getDeletedAt());
+        return byTime < 0 || (byTime == 0 && project.getProjId() < tombstone.getProjId());
+    }
+
+    private int resolveSize(Integer limit) {
+        if (limit == null) {
+            return defaultSize;
+        }
+        if (limit < 1) {
+            throw new InvalidQueryException("limit must be at least 1");
+        }
+        return Math.min(limit, maxSize);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.ProjectEvent;
+import com.example.demo.exception.ServiceBusyException;
+import com.example.demo.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes project changes to Server-Sent Event subscribers of the affected company
+ * (admins receive every company's events).
+ * <p>
+ * Idle connections hold no thread: the servlet request is in async mode until there is
+ * something to write. Publishers only put messages on a subscriber's bounded queue; every
+ * call on the emitter, including complete(), is made by that subscriber's drain task, of
+ * which at most one runs at a time, on a small pool of platform threads. SseEmitter
+ * synchronizes its writes, so they are kept off virtual threads where they would pin the
+ * carrier. A client that stops reading holds one sender thread until its socket write
+ * times out; a subscriber whose queue overflows meanwhile is disconnected (it reconnects
+ * and reloads). Heartbeats keep proxies from closing idle streams and detect dead connections.
+ */
+@Component
+public class ProjectEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectEventBroadcaster.class);
+
+    private static final Message CONNECTED = new Message(null, null);
+    private static final Message PING = new Message(null, "");
+
+    private final Map<Long, Set<Subscriber>> companySubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> adminSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender;
+
+    private final ObjectMapper objectMapper;
+    private final Counter evictions;
+
+    @Value("${app.projects.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.projects.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.projects.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.projects.stream.reconnect-delay:PT5S}")
+    private Duration reconnectDelay;
+
+    public ProjectEventBroadcaster(
+            @Value("${app.projects.stream.sender-threads:4}") int senderThreads,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.sender = Executors.newFixedThreadPool(senderThreads,
+                Thread.ofPlatform().name("project-events-", 0).daemon().factory());
+        this.objectMapper = objectMapper;
+        this.evictions = Counter.builder("projects.stream.evictions")
+                .description("Event stream subscribers disconnected for not keeping up")
+                .register(meterRegistry);
+        Gauge.builder("projects.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open project event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream for the user's company (all companies for admins). A regular
+     * user without a company is refused.
+     */
+    public SseEmitter subscribe(User user) {
+        Set<Subscriber> group = user.isAdmin()
+                ? adminSubscribers
+                : companySubscribers.computeIfAbsent(user.requireCompanyId(), id -> ConcurrentHashMap.newKeySet());
+
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceBusyException("Too many open event streams", reconnectDelay);
+        }
+
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()), group,
+                user.isAdmin() ? "admin" : "company " + user.getCompanyId());
+        group.add(subscriber);
+
+        subscriber.emitter.onCompletion(subscriber::remove);
+        subscriber.emitter.onTimeout(subscriber::remove);
+        subscriber.emitter.onError(e -> subscriber.remove());
+
+        // Tells the browser how long to wait before reconnecting, and commits the response
+        subscriber.enqueue(CONNECTED);
+        logger.debug("User {} subscribed to project events", user.getEmail());
+        return subscriber.emitter;
+    }
+
+    /**
+     * Deliver an event to the subscribers of its company and to admins. Only queues the
+     * message; the emitters are written by the sender threads.
+     */
+    public void publish(ProjectEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize project event {}", event.getType(), e);
+            return;
+        }
+        Message message = new Message(event.getType(), data);
+
+        if (event.getCompanyId() != null) {
+            companySubscribers.getOrDefault(event.getCompanyId(), Set.of()).forEach(s -> s.enqueue(message));
+        }
+        adminSubscribers.forEach(s -> s.enqueue(message));
+    }
+
+    @Scheduled(fixedRateString = "${app.projects.stream.heartbeat:PT20S}")
+    public void heartbeat() {
+        companySubscribers.values().forEach(set -> set.forEach(s -> s.enqueue(PING)));
+        adminSubscribers.forEach(s -> s.enqueue(PING));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        List<Subscriber> all = new ArrayList<>(adminSubscribers);
+        companySubscribers.values().forEach(all::addAll);
+        all.forEach(Subscriber::close);
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Named event with its JSON data, serialized once and shared by all subscribers
+     */
+    private record Message(String name, String data) {
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Subscriber> group;
+        private final String scope;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        private volatile boolean closing;
+
+        Subscriber(SseEmitter emitter, Set<Subscriber> group, String scope) {
+            this.emitter = emitter;
+            this.group = group;
+            this.scope = scope;
+        }
+
+        void enqueue(Message message) {
+            if (removed.get()) {
+                return;
+            }
+            if (!queue.offer(message)) {
+                evictions.increment();
+                logger.info("Disconnecting slow project event subscriber ({})", scope);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Stop delivering and have the drain task complete the emitter
+         */
+        void close() {
+            closing = true;
+            remove();
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down: nothing will write to this stream again
+                    remove();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                // A bounded run per task, so one busy stream cannot hold a sender thread
+                for (int sent = 0; sent < bufferSize; sent++) {
+                    if (closing) {
+                        emitter.complete();
+                        return;
+                    }
+                    Message message = queue.poll();
+                    if (message == null) {
+                        draining.set(false);
+                        // A message (or close) may have arrived after poll() but before the flag was cleared
+                        if ((queue.isEmpty() && !closing) || !draining.compareAndSet(false, true)) {
+                            return;
+                        }
+                        continue;
+                    }
+                    emitter.send(toEvent(message));
+                }
+                // Still marked as draining: continue behind the other subscribers' tasks
+                sender.execute(this::drain);
+            } catch (IOException | IllegalStateException | RejectedExecutionException e) {
+                // Client went away, the emitter already completed or the broadcaster is shutting down
+                logger.debug("Project event stream closed: {}", e.getMessage());
+                remove();
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toEvent(Message message) {
+            if (message == CONNECTED) {
+                return SseEmitter.event().reconnectTime(reconnectDelay.toMillis()).comment("connected");
+            }
+            if (message == PING) {
+                return SseEmitter.event().comment("ping");
+            }
+            return SseEmitter.event().name(message.name()).data(message.data());
+        }
+
+        void remove() {
+            if (removed.compareAndSet(false, true)) {
+                group.remove(this);
+                subscriberCount.decrementAndGet();
+                queue.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.exception.InvalidQueryException;
+import com.example.demo.model.Project;
+import com.example.demo.util.CsvFormulaGuard;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes a project export straight to an output stream, one row at a time, flushing
+ * every few hundred rows so the client receives data while the query is still running.
+ */
+@Component
+public class ProjectExporter {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromParam(String param) {
+            if (param == null || param.isBlank()) {
+                return NDJSON;
+            }
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(param)) {
+                    return format;
+                }
+            }
+            throw new InvalidQueryException("format must be 'ndjson' or 'csv'");
+        }
+    }
+
+    private static final String[] CSV_HEADER = {
+            "projId", "projName", "projTitle", "clientCompany", "clientEmail", "projType", "currPhase",
+            "status", "emailNotifications", "startDate", "estCompDate", "createdDate", "updatedDate", "projDetails"
+    };
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.projects.export.flush-every:500}")
+    private int flushEvery;
+
+    public long export(Format format, ProjectFilter filter, OutputStream out) throws IOException {
+        try {
+            return switch (format) {
+                case NDJSON -> writeNdjson(filter, out);
+                case CSV -> writeCsv(filter, out);
+            };
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeNdjson(ProjectFilter filter, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Project.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+
+        long count;
+        try (SequenceWriter rows = writer.writeValues(out)) {
+            count = projectService.forEachProject(filter, new RowSink(rows) {
+                @Override
+                void write(Project project) throws IOException {
+                    rows.write(project);
+                }
+            });
+        }
+        // The separator only goes between rows; terminate the last line too
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(ProjectFilter filter, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(writer, (Object[]) CSV_HEADER);
+
+        long count = projectService.forEachProject(filter, new RowSink(writer) {
+            @Override
+            void write(Project p) throws IOException {
+                writeCsvRow(writer, p.getProjId(), p.getProjName(), p.getProjTitle(), p.getClientCompany(),
+                        p.getClientEmail(), p.getProjType(), p.getCurrPhase(), p.getStatus(),
+                        p.getEmailNotifications(), p.getStartDate(), p.getEstCompDate(),
+                        p.getCreatedDate(), p.getUpdatedDate(), p.getProjDetails());
+            }
+        });
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised for spreadsheet safety
+    // (reversed by ProjectImporter)
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = CsvFormulaGuard.guard(value.toString());
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    /**
+     * Per-row callback that flushes the underlying stream every {@code flushEvery} rows
+     */
+    private abstract class RowSink implements Consumer<Project> {
+
+        private final Flushable target;
+        private long rows;
+
+        RowSink(Flushable target) {
+            this.target = target;
+        }
+
+        abstract void write(Project project) throws IOException;
+
+        @Override
+        public void accept(Project project) {
+            try {
+                write(project);
+                if (++rows % flushEvery == 0) {
+                    target.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.ImportResultDTO;
+import com.example.demo.dto.response.ImportRowResult;
+import com.example.demo.dto.response.ProjectEvent;
+import com.example.demo.model.Project;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProjectRepo;
+import com.example.demo.util.CsvFormulaGuard;
+import com.example.demo.util.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk project import. Records are read from the upload as a stream, validated in
+ * parallel a batch at a time, and each batch is inserted in one transaction so that
+ * Hibernate can send it as a single JDBC batch. Every record gets its own result row.
+ */
+@Component
+public class ProjectImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectImporter.class);
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepo repo;
+
+    @Autowired
+    private ProjectListCache listCache;
+
+    @Autowired
+    private ProjectEventBroadcaster eventBroadcaster;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.projects.import.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.projects.import.max-rows:10000}")
+    private int maxRows;
+
+    @Autowired
+    public ProjectImporter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import a JSON array of projects, read element by element. An element that does not
+     * bind to a project is rejected on its own; only malformed JSON stops the import.
+     */
+    public ImportResultDTO importJson(InputStream in) throws IOException {
+        Batch batch = new Batch(projectService.getCurrentUser());
+        try (MappingIterator<JsonNode> records = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+            while (true) {
+                try {
+                    if (!records.hasNextValue() || !batch.hasCapacity()) {
+                        break;
+                    }
+                    JsonNode record = records.nextValue();
+                    try {
+                        batch.add(objectMapper.treeToValue(record, Project.class), List.of());
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
+                        batch.reject("Invalid project: " + bindingError(e));
+                    }
+                } catch (JsonProcessingException e) {
+                    batch.abort("Malformed JSON: " + e.getOriginalMessage());
+                    break;
+                }
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Import CSV with a header row. Column names match the export format; server-assigned
+     * columns (projId, company, dates) are ignored.
+     */
+    public ImportResultDTO importCsv(InputStream in) throws IOException {
+        Batch batch = new Batch(projectService.getCurrentUser());
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.readRecord();
+        if (header != null) {
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+            try {
+                List<String> record;
+                while ((record = reader.readRecord()) != null) {
+                    if (record.size() == 1 && record.get(0).isBlank()) {
+                        continue;
+                    }
+                    if (!batch.hasCapacity()) {
+                        break;
+                    }
+                    List<String> errors = new ArrayList<>();
+                    batch.add(fromCsv(record, columns, errors), errors);
+                }
+            } catch (IOException e) {
+                batch.abort("Malformed CSV: " + e.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    private Project fromCsv(List<String> record, Map<String, Integer> columns, List<String> errors) {
+        Project project = new Project();
+        project.setProjName(column(record, columns, "projName"));
+        project.setProjTitle(column(record, columns, "projTitle"));
+        project.setProjType(column(record, columns, "projType"));
+        project.setCurrPhase(column(record, columns, "currPhase"));
+        project.setStatus(column(record, columns, "status"));
+        project.setProjDetails(column(record, columns, "projDetails"));
+        project.setStartDate(parseDate(column(record, columns, "startDate"), "startDate", errors));
+        project.setEstCompDate(parseDate(column(record, columns, "estCompDate"), "estCompDate", errors));
+
+        String notifications = column(record, columns, "emailNotifications");
+        if (notifications != null) {
+            project.setEmailNotifications(Boolean.parseBoolean(notifications));
+        }
+        return project;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name.toLowerCase());
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        // Undo the export's formula guard, so exported files import unchanged
+        return CsvFormulaGuard.unguard(record.get(index));
+    }
+
+    private static LocalDateTime parseDate(String value, String field, List<String> errors) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            errors.add(field + " must be an ISO date (yyyy-MM-dd) or date-time");
+            return null;
+        }
+    }
+
+    private static String bindingError(Exception e) {
+        return e instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : e.getMessage();
+    }
+
+    private static List<String> validate(Project project) {
+        List<String> errors = new ArrayList<>();
+        if (project.getProjName() == null || project.getProjName().isBlank()) {
+            errors.add("projName is required");
+        }
+        checkLength(errors, "projName", project.getProjName());
+        checkLength(errors, "projTitle", project.getProjTitle());
+        checkLength(errors, "projType", project.getProjType());
+        checkLength(errors, "currPhase", project.getCurrPhase());
+        checkLength(errors, "status", project.getStatus());
+        if (project.getStartDate() != null && project.getEstCompDate() != null
+                && project.getEstCompDate().isBefore(project.getStartDate())) {
+            errors.add("estCompDate must not be before startDate");
+        }
+        return errors;
+    }
+
+    private static void checkLength(List<String> errors, String field, String value) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            errors.add(field + " must not exceed " + MAX_TEXT_LENGTH + " characters");
+        }
+    }
+
+    private record PendingRow(int row, Project project, List<String> errors) {
+    }
+
+    /**
+     * Accumulates records into batches and collects the per-row results
+     */
+    private class Batch {
+
+        private final User user;
+        private final Long companyId;
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final List<ImportRowResult> results = new ArrayList<>();
+        private int rows;
+        private int created;
+
+        Batch(User user) {
+            this.user = user;
+            // Refuse the whole import up front for a non-admin without a company
+            this.companyId = user.isAdmin() ? user.getCompanyId() : user.requireCompanyId();
+        }
+
+        /**
+         * Called once another record is known to exist, so an upload of exactly maxRows
+         * records is accepted in full
+         */
+        boolean hasCapacity() {
+            if (rows < maxRows) {
+                return true;
+            }
+            abort("Import is limited to " + maxRows + " rows; remaining rows were not processed");
+            return false;
+        }
+
+        void add(Project project, List<String> parseErrors) {
+            pending.add(new PendingRow(++rows, project, parseErrors));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Record a row that could not be turned into a project at all
+         */
+        void reject(String error) {
+            results.add(ImportRowResult.builder()
+                    .row(++rows)
+                    .status(ImportRowResult.INVALID)
+                    .errors(List.of(error))
+                    .build());
+        }
+
+        void abort(String reason) {
+            flush();
+            results.add(ImportRowResult.builder()
+                    .row(rows + 1)
+                    .status(ImportRowResult.INVALID)
+                    .errors(List.of(reason))
+                    .build());
+        }
+
+        ImportResultDTO finish() {
+            flush();
+            if (created > 0) {
+                listCache.invalidateCompany(companyId);
+                eventBroadcaster.publish(ProjectEvent.refresh(companyId));
+            }
+            results.sort(Comparator.comparingInt(ImportRowResult::getRow));
+            logger.info("User {} imported {} of {} projects", user.getEmail(), created, rows);
+            return ImportResultDTO.builder()
+                    .total(rows)
+                    .created(created)
+                    .rejected(rows - created)
+                    .rows(results)
+                    .build();
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            // Validation is independent per record, so it runs in parallel
+            List<List<String>> errors = pending.parallelStream()
+                    .map(row -> {
+                        List<String> rowErrors = new ArrayList<>(row.errors());
+                        rowErrors.addAll(validate(row.project()));
+                        return rowErrors;
+                    })
+                    .toList();
+
+            List<PendingRow> valid = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                PendingRow row = pending.get(i);
+                if (errors.get(i).isEmpty()) {
+                    prepare(row.project());
+                    valid.add(row);
+                } else {
+                    results.add(ImportRowResult.builder()
+                            .row(row.row())
+                            .status(ImportRowResult.INVALID)
+                            .errors(errors.get(i))
+                            .build());
+                }
+            }
+            pending.clear();
+
+            persist(valid);
+        }
+
+        private void prepare(Project project) {
+            LocalDateTime now = LocalDateTime.now();
+            project.setProjId(null);
+            project.setVersion(null);
+            project.setClientCompany(user.getCompanyName());
+            project.setCompanyId(companyId);
+            project.setClientEmail(user.getEmail());
+            project.setCreatedBy(user.getId());
+            project.setCreatedDate(now);
+            project.setUpdatedDate(now);
+            if (project.getEmailNotifications() == null) {
+                project.setEmailNotifications(true);
+            }
+        }
+
+        private void persist(List<PendingRow> valid) {
+            if (valid.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    repo.saveAll(valid.stream().map(PendingRow::project).toList());
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                valid.forEach(this::created);
+            } catch (DataAccessException | PersistenceException e) {
+                // Retry one by one so a single bad record does not fail its whole batch
+                logger.warn("Batch insert failed ({}); retrying {} rows individually", e.getMessage(), valid.size());
+                valid.forEach(this::persistSingle);
+            }
+        }
+
+        private void persistSingle(PendingRow row) {
+            row.project().setProjId(null);
+            row.project().setVersion(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> repo.save(row.project()));
+                created(row);
+            } catch (DataAccessException | PersistenceException e) {
+                results.add(ImportRowResult.builder()
+                        .row(row.row())
+                        .status(ImportRowResult.FAILED)
+                        .errors(List.of("Could not be saved"))
+                        .build());
+            }
+        }
+
+        private void created(PendingRow row) {
+            created++;
+            results.add(ImportRowResult.builder()
+                    .row(row.row())
+                    .status(ImportRowResult.CREATED)
+                    .projId(row.project().getProjId())
+                    .build());
+        }
+    }
+}
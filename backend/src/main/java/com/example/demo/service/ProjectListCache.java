@@ -0,0 +1,98 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.dto.response.CursorPage;
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.util.BoundedCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches project list pages per tenant. Writes to a company's projects invalidate that
+ * company's pages plus the admin (all companies) pages; other tenants keep their entries.
+ * Hit, miss and eviction counts are published as projects.list.cache.* metrics.
+ */
+@Component
+public class ProjectListCache {
+
+    /**
+     * One cached page, either of the admin view across all companies or of one company
+     */
+    public record Key(boolean allCompanies, Long companyId, ProjectFilter filter, String cursor, int limit) {
+
+        public Key {
+            if (allCompanies != (companyId == null)) {
+                throw new IllegalArgumentException("A tenant page needs a companyId and an admin page must not have one");
+            }
+        }
+
+        public static Key admin(ProjectFilter filter, String cursor, int limit) {
+            return new Key(true, null, filter, cursor, limit);
+        }
+
+        public static Key company(long companyId, ProjectFilter filter, String cursor, int limit) {
+            return new Key(false, companyId, filter, cursor, limit);
+        }
+    }
+
+    private final boolean enabled;
+    private final BoundedCache<Key, CursorPage<ProjectSummaryDTO>> cache;
+
+    // Bumped on every write so a page loaded concurrently with a write is never cached
+    private final AtomicLong writeGeneration = new AtomicLong();
+
+    public ProjectListCache(
+            @Value("${app.projects.list-cache.enabled:true}") boolean enabled,
+            @Value("${app.projects.list-cache.max-size:1000}") int maxSize,
+            @Value("${app.projects.list-cache.ttl:PT30S}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = new BoundedCache<>(maxSize, ttl);
+
+        FunctionCounter.builder("projects.list.cache.hits", cache, BoundedCache::hitCount)
+                .description("Project list pages served from cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("projects.list.cache.misses", cache, BoundedCache::missCount)
+                .description("Project list pages loaded from the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("projects.list.cache.evictions", cache, BoundedCache::evictionCount)
+                .description("Project list pages evicted because the cache was full")
+                .register(meterRegistry);
+        Gauge.builder("projects.list.cache.size", cache, BoundedCache::size)
+                .description("Project list pages currently cached")
+                .register(meterRegistry);
+    }
+
+    public CursorPage<ProjectSummaryDTO> get(Key key, Supplier<CursorPage<ProjectSummaryDTO>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CursorPage<ProjectSummaryDTO> page = cache.get(key);
+        if (page != null) {
+            return page;
+        }
+
+        long generation = writeGeneration.get();
+        page = loader.get();
+        if (writeGeneration.get() == generation) {
+            cache.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Drop the pages that can contain projects of this company
+     */
+    public void invalidateCompany(Long companyId) {
+        writeGeneration.incrementAndGet();
+        cache.invalidateIf(key -> key.allCompanies() || Objects.equals(key.companyId(), companyId));
+    }
+}
@@ -1,49 +1,211 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.request.BulkUpdateRequest;
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.dto.response.BulkUpdateResultDTO;
+import com.example.demo.dto.response.CursorPage;
+import com.example.demo.dto.response.ProjectEvent;
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.exception.InvalidQueryException;
+import com.example.demo.exception.PreconditionRequiredException;
 import com.example.demo.model.Project;
+import com.example.demo.model.ProjectTombstone;
 import com.example.demo.model.User;
 import com.example.demo.repository.ProjectRepo;
+import com.example.demo.repository.ProjectSort;
+import com.example.demo.repository.ProjectSpecifications;
+import com.example.demo.repository.ProjectTombstoneRepo;
 import com.example.demo.repository.UserRepo;
+import com.example.demo.util.ETags;
+import com.example.demo.util.ProjectCursor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProjectService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectService.class);
 
+    // Ids per UPDATE ... IN (...) statement
+    private static final int BULK_UPDATE_CHUNK = 1000;
+
+    // Fields a PATCH may change; ownership, ids and timestamps are server-managed
+    private static final Set<String> PATCHABLE_FIELDS = Set.of(
+            "projName", "projTitle", "projType", "currPhase", "status", "projDetails",
+            "emailNotifications", "startDate", "estCompDate");
+
     @Autowired
     ProjectRepo repo;
 
     @Autowired
     UserRepo userRepo;
 
+    @Autowired
+    ProjectTombstoneRepo tombstoneRepo;
+
     @Autowired
     EmailService emailService;
 
+    @Autowired
+    PrincipalCache principalCache;
+
+    @Autowired
+    ProjectListCache listCache;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ProjectEventBroadcaster eventBroadcaster;
+
+    @Value("${app.projects.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.projects.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${app.projects.bulk-update.max-rows:5000}")
+    private int maxBulkUpdateRows;
+
+    @Value("${app.projects.export.fetch-size:500}")
+    private int exportFetchSize;
+
     /**
-     * Get projects based on user role:
+     * Get one page of project summaries (no projDetails) matching the filter,
+     * using keyset pagination on (sort column, projId).
      * - ADMIN: sees all projects
-     * - USER: sees only their company's projects (by clientCompany)
+     * - USER: sees only their company's projects (by companyId); a user without a
+     *   company is refused rather than shown an unscoped list
+     * The returned cursor is passed back to fetch the following page; it is null
+     * once the last page has been reached.
      */
-    public List<Project> getProjects() {
+    public CursorPage<ProjectSummaryDTO> getProjectPage(ProjectFilter filter, String cursor, Integer limit) {
         User currentUser = getCurrentUser();
-
+        ProjectSort sort = ProjectSort.fromParam(filter.getSort());
+        Sort.Direction direction = resolveDirection(filter.getOrder());
+        ProjectCursor after = ProjectCursor.decode(cursor, sort, direction);
+        int pageSize = resolvePageSize(limit);
+
+        Specification<Project> spec = ProjectSpecifications.matching(filter)
+                .and(ProjectSpecifications.after(after, sort, direction));
+        ProjectListCache.Key key;
         if (currentUser.isAdmin()) {
-            logger.info("Admin user {} fetching all projects", currentUser.getEmail());
-            return repo.findAll();
+            key = ProjectListCache.Key.admin(filter, cursor, pageSize);
         } else {
-            logger.info("User {} fetching projects for company: {}",
-                    currentUser.getEmail(), currentUser.getCompanyName());
-            return repo.findByClientCompanyIgnoreCase(currentUser.getCompanyName());
+            long companyId = currentUser.requireCompanyId();
+            spec = spec.and(ProjectSpecifications.belongsToCompany(companyId));
+            key = ProjectListCache.Key.company(companyId, filter, cursor, pageSize);
+        }
+        Specification<Project> query = spec;
+
+        CursorPage<ProjectSummaryDTO> page = listCache.get(key, () -> loadPage(query, sort, direction, pageSize));
+
+        logger.debug("User {} fetched {} projects (limit {}, more: {})",
+                currentUser.getEmail(), page.getItems().size(), pageSize, page.getNext() != null);
+        return page;
+    }
+
+    private CursorPage<ProjectSummaryDTO> loadPage(Specification<Project> spec, ProjectSort sort,
+                                                   Sort.Direction direction, int pageSize) {
+        // Fetch one extra row to find out whether another page exists
+        List<ProjectSummaryDTO> rows = repo.findSummaries(
+                spec, ProjectSpecifications.orderBy(sort, direction), pageSize + 1);
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            next = ProjectCursor.after(rows.get(pageSize - 1), sort, direction).encode();
+        }
+        return CursorPage.of(List.copyOf(rows), next, pageSize);
+    }
+
+    /**
+     * ETag of the list page the caller would get for this query. Derived from the count and
+     * latest updatedDate of the projects visible to the caller, so it costs one aggregate
+     * over the (company_id, updated_date) index and no rows are loaded.
+     */
+    public String getProjectListETag(String query) {
+        User currentUser = getCurrentUser();
+        if (currentUser.isAdmin()) {
+            return ETags.forProjectList(repo.findCollectionStamp(), query);
+        }
+        long companyId = currentUser.requireCompanyId();
+        return ETags.forCompanyProjectList(companyId, repo.findCollectionStampByCompanyId(companyId), query);
+    }
+
+    /**
+     * ETag of a single project, read from its version column alone.
+     * Empty if the project does not exist or is not accessible.
+     */
+    public Optional<String> getProjectETag(int projId) {
+        User currentUser = getCurrentUser();
+        Optional<Long> version = currentUser.isAdmin()
+                ? repo.findVersionByProjId(projId)
+                : repo.findVersionByProjIdAndCompanyId(projId, currentUser.requireCompanyId());
+        return version.map(v -> ETags.forProject(projId, v));
+    }
+
+    /**
+     * Stream every project matching the filter (same visibility rules as the list) to the
+     * consumer, in projId order. Rows are read with a bounded JDBC fetch size and detached
+     * one by one, so memory use does not depend on the number of projects.
+     * Returns the number of projects streamed.
+     */
+    @Transactional(readOnly = true)
+    public long forEachProject(ProjectFilter filter, Consumer<Project> action) {
+        User currentUser = getCurrentUser();
+
+        Specification<Project> spec = ProjectSpecifications.matching(filter);
+        if (!currentUser.isAdmin()) {
+            spec = spec.and(ProjectSpecifications.belongsToCompany(currentUser.requireCompanyId()));
         }
+
+        long count = 0;
+        try (Stream<Project> projects = repo.streamAll(spec, Sort.by("projId"), exportFetchSize)) {
+            for (Project project : (Iterable<Project>) projects::iterator) {
+                action.accept(project);
+                count++;
+            }
+        }
+
+        logger.info("User {} exported {} projects", currentUser.getEmail(), count);
+        return count;
+    }
+
+    /**
+     * Open a Server-Sent Events stream of changes to the projects the current user can see
+     */
+    public SseEmitter streamEvents() {
+        return eventBroadcaster.subscribe(getCurrentUser());
     }
 
     /**
@@ -53,26 +215,14 @@ public class ProjectService {
      */
     public Project getProjectById(int projId) {
         User currentUser = getCurrentUser();
-        Project project = repo.findById(projId).orElse(null);
+        Project project = findAccessibleProject(currentUser, projId).orElse(null);
 
         if (project == null) {
-            return new Project();
-        }
-
-        // Admin can access any project
-        if (currentUser.isAdmin()) {
-            return project;
+            logger.debug("Project {} not found or not accessible to user {}", projId, currentUser.getEmail());
+            return new Project(); // Return empty project if missing or not authorized
         }
 
-        // Regular user can only access their company's projects
-        if (project.getClientCompany() != null &&
-                project.getClientCompany().equalsIgnoreCase(currentUser.getCompanyName())) {
-            return project;
-        }
-
-        logger.warn("User {} attempted to access project {} belonging to different company",
-                currentUser.getEmail(), projId);
-        return new Project(); // Return empty project if not authorized
+        return project;
     }
 
     /**
@@ -83,8 +233,13 @@ public class ProjectService {
     public Project addProject(Project proj) {
         User currentUser = getCurrentUser();
 
-        // Set the clientCompany to the current user's company
+        // Always a new row, whatever id or version the client sent
+        proj.setProjId(null);
+        proj.setVersion(null);
+        // Set the clientCompany to the current user's company; a regular user without one
+        // would create a project no tenant can see, so is refused
         proj.setClientCompany(currentUser.getCompanyName());
+        proj.setCompanyId(currentUser.isAdmin() ? currentUser.getCompanyId() : currentUser.requireCompanyId());
         // Set the clientEmail to the current user's email
         proj.setClientEmail(currentUser.getEmail());
         // Set who created the project
@@ -97,33 +252,28 @@ public class ProjectService {
         logger.info("User {} (ID: {}) creating project for company: {} with email notifications enabled",
                 currentUser.getEmail(), currentUser.getId(), currentUser.getCompanyName());
 
-        return repo.save(proj);
+        Project savedProject = repo.save(proj);
+        listCache.invalidateCompany(savedProject.getCompanyId());
+        eventBroadcaster.publish(ProjectEvent.of(ProjectEvent.CREATED, ProjectSummaryDTO.of(savedProject)));
+        return savedProject;
     }
 
     /**
      * Update project with company verification:
      * - ADMIN: can update any project
      * - USER: can only update their company's projects
-     * Also sends email notification if status changed and notifications are enabled.
+     * Also records a status change notification if status changed and notifications are enabled.
      */
+    @Transactional
     public Project updateProject(Project proj) {
         User currentUser = getCurrentUser();
-        Project existingProject = repo.findById(proj.getProjId()).orElse(null);
+        Project existingProject = findAccessibleProject(currentUser, proj.getProjId()).orElse(null);
 
         if (existingProject == null) {
-            logger.warn("Project {} not found for update", proj.getProjId());
+            logger.warn("Project {} not found for update by user {}", proj.getProjId(), currentUser.getEmail());
             return proj;
         }
 
-        // Check authorization
-        if (!currentUser.isAdmin() &&
-                (existingProject.getClientCompany() == null ||
-                        !existingProject.getClientCompany().equalsIgnoreCase(currentUser.getCompanyName()))) {
-            logger.warn("User {} attempted to update project {} belonging to different company",
-                    currentUser.getEmail(), proj.getProjId());
-            return existingProject; // Return existing project without changes
-        }
-
         // Check if status changed and email notifications are enabled
         String oldStatus = existingProject.getStatus();
         String newStatus = proj.getStatus();
@@ -135,66 +285,327 @@ public class ProjectService {
                 ? proj.getEmailNotifications()
                 : existingProject.getEmailNotifications();
 
-        // Preserve the original clientCompany, clientEmail, and createdBy
+        // Preserve the original company, clientEmail, and createdBy
         proj.setClientCompany(existingProject.getClientCompany());
+        proj.setCompanyId(existingProject.getCompanyId());
         proj.setClientEmail(existingProject.getClientEmail());
         proj.setCreatedBy(existingProject.getCreatedBy());
         proj.setCreatedDate(existingProject.getCreatedDate());
         proj.setUpdatedDate(LocalDateTime.now());
+        // Clients that send the version they edited get a conflict if someone saved in between
+        if (proj.getVersion() == null) {
+            proj.setVersion(existingProject.getVersion());
+        }
 
         logger.info("User {} updating project {}", currentUser.getEmail(), proj.getProjId());
 
+        // Captured before the merge below copies the new values onto the managed entity
+        String projectName = existingProject.getProjName();
+        String clientEmail = existingProject.getClientEmail();
+
         Project savedProject = repo.save(proj);
 
-        // Send email notification if status changed and notifications are enabled
+        // Record a status change notification if status changed and notifications are enabled
         if (statusChanged && Boolean.TRUE.equals(emailNotificationsEnabled)) {
-            String clientEmail = existingProject.getClientEmail();
-            String projectName = existingProject.getProjName();
+            notifyStatusChange(proj.getProjId(), clientEmail, projectName, oldStatus, newStatus);
+        }
+
+        ProjectSummaryDTO summary = ProjectSummaryDTO.of(savedProject);
+        afterCommit(() -> {
+            listCache.invalidateCompany(savedProject.getCompanyId());
+            eventBroadcaster.publish(ProjectEvent.of(ProjectEvent.UPDATED, summary));
+        });
+
+        return savedProject;
+    }
 
-            if (clientEmail != null && !clientEmail.isEmpty()) {
-                logger.info("Status changed from '{}' to '{}' for project '{}'. Sending notification to {}",
-                        oldStatus, newStatus, projectName, clientEmail);
-                emailService.sendStatusUpdateEmail(clientEmail, projectName, oldStatus, newStatus);
+    /**
+     * Apply a partial update: only the fields present in the patch change, and only changed
+     * columns are written. The patch must say which version it is based on, either as
+     * "version" in the body or as an If-Match ETag from a previous read; without either it
+     * is refused, and if it is not the current version it is rejected with a conflict.
+     * If-Match: * explicitly asks for an unconditional update.
+     * Same company rules as {@link #updateProject}.
+     * Returns empty if the project does not exist or is not accessible.
+     */
+    @Transactional
+    public Optional<Project> patchProject(int projId, JsonNode patch, String ifMatch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidQueryException("Patch body must be a JSON object");
+        }
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!PATCHABLE_FIELDS.contains(field) && !"version".equals(field)) {
+                throw new InvalidQueryException("Field '" + field + "' cannot be changed");
             }
+        });
+
+        ObjectNode changes = ((ObjectNode) patch).deepCopy();
+        JsonNode version = changes.remove("version");
+        boolean hasVersion = version != null && !version.isNull();
+        if (!hasVersion && ifMatch == null) {
+            throw new PreconditionRequiredException("Include the project's version or an If-Match header");
         }
 
-        return savedProject;
+        User currentUser = getCurrentUser();
+        Project project = findAccessibleProject(currentUser, projId).orElse(null);
+        if (project == null) {
+            logger.warn("Project {} not found for patch by user {}", projId, currentUser.getEmail());
+            return Optional.empty();
+        }
+
+        if ((hasVersion && !Objects.equals(version.asLong(), project.getVersion()))
+                || (ifMatch != null && !ETags.matches(ifMatch, ETags.forProject(projId, project.getVersion())))) {
+            throw new ObjectOptimisticLockingFailureException(Project.class, projId);
+        }
+
+        String oldStatus = project.getStatus();
+        try {
+            objectMapper.readerForUpdating(project).readValue(changes);
+        } catch (IOException e) {
+            throw new InvalidQueryException("Invalid patch: " + e.getMessage());
+        }
+        project.setUpdatedDate(LocalDateTime.now());
+
+        // Flushed here so a concurrent write surfaces as a version conflict from this call
+        Project savedProject = repo.saveAndFlush(project);
+        logger.info("User {} patched {} fields of project {}", currentUser.getEmail(), changes.size(), projId);
+
+        String newStatus = savedProject.getStatus();
+        boolean statusChanged = oldStatus != null && newStatus != null && !oldStatus.equals(newStatus);
+        ProjectSummaryDTO summary = ProjectSummaryDTO.of(savedProject);
+        if (statusChanged && Boolean.TRUE.equals(savedProject.getEmailNotifications())) {
+            notifyStatusChange(projId, savedProject.getClientEmail(), savedProject.getProjName(), oldStatus, newStatus);
+        }
+        afterCommit(() -> {
+            listCache.invalidateCompany(savedProject.getCompanyId());
+            eventBroadcaster.publish(ProjectEvent.of(ProjectEvent.UPDATED, summary));
+        });
+        return Optional.of(savedProject);
+    }
+
+    // Recorded in the current transaction, so the client hears about it only if the change commits
+    private void notifyStatusChange(Integer projId, String clientEmail, String projectName,
+                                    String oldStatus, String newStatus) {
+        if (clientEmail != null && !clientEmail.isEmpty()) {
+            logger.info("Status changed from '{}' to '{}' for project '{}'. Recording notification to {}",
+                    oldStatus, newStatus, projectName, clientEmail);
+            emailService.recordStatusChanges(List.of(
+                    new EmailService.StatusUpdate(clientEmail, projId, projectName, oldStatus, newStatus)));
+        }
+    }
+
+    /**
+     * Change status and/or phase on many projects at once:
+     * - ADMIN: any project matching the ids / filter
+     * - USER: only their company's projects; refused if they have no company
+     * Matching rows are read once (summary columns only) and changed with set-based UPDATEs.
+     * Status changes for the whole batch are recorded in the same transaction and go out
+     * as one digest per client.
+     */
+    @Transactional
+    public BulkUpdateResultDTO bulkUpdate(BulkUpdateRequest request) {
+        String status = StringUtils.hasText(request.getStatus()) ? request.getStatus() : null;
+        String currPhase = StringUtils.hasText(request.getCurrPhase()) ? request.getCurrPhase() : null;
+        boolean hasIds = request.getIds() != null && !request.getIds().isEmpty();
+
+        if (status == null && currPhase == null) {
+            throw new InvalidQueryException("status or currPhase is required");
+        }
+        if (!hasIds && request.getFilter() == null) {
+            throw new InvalidQueryException("ids or filter is required");
+        }
+        if (hasIds && request.getIds().size() > maxBulkUpdateRows) {
+            throw new InvalidQueryException("At most " + maxBulkUpdateRows + " projects can be updated at once");
+        }
+
+        User currentUser = getCurrentUser();
+        boolean admin = currentUser.isAdmin();
+        Long companyId = admin ? null : currentUser.requireCompanyId();
+
+        Specification<Project> spec = Specification.where(ProjectSpecifications.idIn(request.getIds()));
+        if (request.getFilter() != null) {
+            spec = spec.and(ProjectSpecifications.matching(request.getFilter()));
+        }
+        if (!admin) {
+            spec = spec.and(ProjectSpecifications.belongsToCompany(companyId));
+        }
+
+        List<ProjectSummaryDTO> matched = repo.findSummaries(spec, Sort.by("projId"), maxBulkUpdateRows + 1);
+        if (matched.size() > maxBulkUpdateRows) {
+            throw new InvalidQueryException("More than " + maxBulkUpdateRows
+                    + " projects match; narrow the filter or pass ids");
+        }
+
+        // Rows already in the target state are left untouched
+        List<ProjectSummaryDTO> changed = matched.stream()
+                .filter(p -> (status != null && !status.equals(p.getStatus()))
+                        || (currPhase != null && !currPhase.equals(p.getCurrPhase())))
+                .toList();
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (int from = 0; from < changed.size(); from += BULK_UPDATE_CHUNK) {
+            List<Integer> ids = changed.subList(from, Math.min(from + BULK_UPDATE_CHUNK, changed.size())).stream()
+                    .map(ProjectSummaryDTO::getProjId)
+                    .toList();
+            updated += admin
+                    ? repo.bulkUpdateStatusAndPhase(ids, status, currPhase, now)
+                    : repo.bulkUpdateStatusAndPhaseForCompany(ids, companyId, status, currPhase, now);
+        }
+
+        List<EmailService.StatusUpdate> notifications = status == null ? List.of() : changed.stream()
+                .filter(p -> p.getStatus() != null && !status.equals(p.getStatus()))
+                .filter(p -> Boolean.TRUE.equals(p.getEmailNotifications()))
+                .filter(p -> StringUtils.hasText(p.getClientEmail()))
+                .map(p -> new EmailService.StatusUpdate(p.getClientEmail(), p.getProjId(), p.getProjName(),
+                        p.getStatus(), status))
+                .toList();
+        Set<Long> companies = changed.stream()
+                .map(ProjectSummaryDTO::getCompanyId)
+                .collect(Collectors.toSet());
+
+        if (!notifications.isEmpty()) {
+            emailService.recordStatusChanges(notifications);
+        }
+        afterCommit(() -> {
+            companies.forEach(listCache::invalidateCompany);
+            companies.forEach(id -> eventBroadcaster.publish(ProjectEvent.refresh(id)));
+        });
+
+        logger.info("User {} bulk-updated {} of {} matching projects (status: {}, phase: {})",
+                currentUser.getEmail(), updated, matched.size(), status, currPhase);
+
+        return BulkUpdateResultDTO.builder()
+                .matched(matched.size())
+                .updated(updated)
+                .notified(notifications.size())
+                .build();
     }
 
     /**
      * Delete project with company verification:
      * - ADMIN: can delete any project
      * - USER: can only delete their company's projects
+     * A tombstone is recorded so delta sync clients learn about the deletion.
      */
+    @Transactional
     public void deleteProject(int projId) {
         User currentUser = getCurrentUser();
-        Project project = repo.findById(projId).orElse(null);
 
-        if (project == null) {
-            logger.warn("Project {} not found for deletion", projId);
+        // Single DELETE with the company predicate; nothing is loaded first.
+        // Admins only look up the owning company id, to invalidate that tenant's cached lists.
+        Long companyId = currentUser.isAdmin()
+                ? repo.findCompanyIdByProjId(projId).orElse(null)
+                : currentUser.requireCompanyId();
+        int deleted = currentUser.isAdmin()
+                ? repo.deleteByProjId(projId)
+                : repo.deleteByProjIdAndCompanyId(projId, companyId);
+
+        if (deleted == 0) {
+            logger.warn("Project {} not found for deletion by user {}", projId, currentUser.getEmail());
             return;
         }
 
-        // Check authorization
-        if (!currentUser.isAdmin() &&
-                (project.getClientCompany() == null ||
-                        !project.getClientCompany().equalsIgnoreCase(currentUser.getCompanyName()))) {
-            logger.warn("User {} attempted to delete project {} belonging to different company",
-                    currentUser.getEmail(), projId);
-            return; // Don't delete if not authorized
+        // Recorded in the same transaction so delta sync clients always see the deletion
+        tombstoneRepo.save(ProjectTombstone.builder()
+                .projId(projId)
+                .companyId(companyId)
+                .deletedAt(LocalDateTime.now())
+                .build());
+
+        afterCommit(() -> {
+            listCache.invalidateCompany(companyId);
+            eventBroadcaster.publish(ProjectEvent.deleted(projId, companyId));
+        });
+        logger.info("User {} deleted project {}", currentUser.getEmail(), projId);
+    }
+
+    /**
+     * Load a project the user may access. For regular users the company check is part
+     * of the query, so a foreign project is indistinguishable from a missing one.
+     */
+    private Optional<Project> findAccessibleProject(User currentUser, int projId) {
+        if (currentUser.isAdmin()) {
+            return repo.findById(projId);
+        }
+        return repo.findByProjIdAndCompanyId(projId, currentUser.requireCompanyId());
+    }
+
+    /**
+     * Run the action once the surrounding transaction has committed
+     */
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new InvalidQueryException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private Sort.Direction resolveDirection(String order) {
+        if (order == null || order.isBlank()) {
+            return Sort.Direction.DESC;
         }
+        return Sort.Direction.fromOptionalString(order)
+                .orElseThrow(() -> new InvalidQueryException("order must be 'asc' or 'desc'"));
+    }
 
-        logger.info("User {} deleting project {}", currentUser.getEmail(), projId);
-        repo.deleteById(projId);
+    /**
+     * Fill in updatedDate/createdDate on legacy rows so they are reachable through keyset pagination
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillTimestamps() {
+        int updated = repo.backfillUpdatedDate() + repo.backfillCreatedDate();
+        if (updated > 0) {
+            logger.info("Backfilled timestamps on {} project rows", updated);
+        }
     }
 
     /**
-     * Get the currently authenticated user
+     * Give legacy rows a version so optimistic locking applies to them
      */
-    private User getCurrentUser() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVersions() {
+        int updated = repo.backfillVersion();
+        if (updated > 0) {
+            logger.info("Backfilled version on {} project rows", updated);
+        }
+    }
+
+    /**
+     * Keep the project id sequence ahead of existing rows, which were numbered by AUTO_INCREMENT
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignIdSequence() {
+        try {
+            repo.alignIdSequence(Project.ID_ALLOCATION_SIZE);
+        } catch (DataAccessException e) {
+            logger.warn("Could not align project id sequence: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get the currently authenticated user. The JWT filter already resolved it for this
+     * request, so the principal is reused instead of querying the users table again.
+     */
+    User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
         String email = authentication.getName();
-        return userRepo.findByEmail(email)
+        return principalCache.get(email, userRepo::findByEmail)
                 .orElseThrow(() -> new RuntimeException("User not found: " + email));
     }
 }
\ No newline at end of file
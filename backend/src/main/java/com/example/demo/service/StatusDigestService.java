@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.model.StatusChange;
+import com.example.demo.repository.StatusChangeRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Turns recorded status changes into notification emails.
+ * <p>
+ * Once a client's oldest pending change is older than the digest window, all of that
+ * client's pending changes are merged: per project only the net change (first old status to
+ * last new status) is kept, and projects that ended where they started are dropped. The
+ * result is one email per client, the usual status update email for a single project or a
+ * digest for several, queued in the outbox in the same transaction that deletes the changes.
+ */
+@Service
+public class StatusDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatusDigestService.class);
+
+    private final StatusChangeRepo statusChangeRepo;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter changesMerged;
+    private final Counter emailsQueued;
+
+    @Value("${app.mail.status-digest.window:PT2M}")
+    private Duration window;
+
+    @Value("${app.mail.status-digest.batch-size:200}")
+    private int batchSize;
+
+    public StatusDigestService(StatusChangeRepo statusChangeRepo,
+                               EmailService emailService,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.statusChangeRepo = statusChangeRepo;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.changesMerged = Counter.builder("email.status.changes")
+                .description("Status changes merged into digests")
+                .register(meterRegistry);
+        this.emailsQueued = Counter.builder("email.status.digests")
+                .description("Status update emails queued from digests")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.status-digest.poll-interval:PT15S}")
+    public void sendDueDigests() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(window);
+        while (true) {
+            Integer recipients = transactionTemplate.execute(status -> digestBatch(cutoff));
+            // Fewer than a full batch (or only rows another instance holds): nothing more is due
+            if (recipients == null || recipients < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merge and queue the changes of up to batch-size due recipients. Returns how many
+     * recipients were processed (0 if their rows are locked by another instance).
+     */
+    private int digestBatch(LocalDateTime cutoff) {
+        List<String> recipients = statusChangeRepo.findDueRecipients(cutoff, Limit.of(batchSize));
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+        List<StatusChange> changes = statusChangeRepo.findByRecipientsForUpdate(recipients);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<EmailService.StatusUpdate>> digests = new LinkedHashMap<>();
+        Map<String, List<StatusChange>> byRecipient = new LinkedHashMap<>();
+        changes.forEach(change -> byRecipient.computeIfAbsent(change.getRecipient(), r -> new ArrayList<>()).add(change));
+        byRecipient.forEach((recipient, recipientChanges) -> {
+            List<EmailService.StatusUpdate> net = netChanges(recipientChanges);
+            if (!net.isEmpty()) {
+                digests.put(recipient, net);
+            }
+        });
+
+        if (!digests.isEmpty()) {
+            emailService.queueStatusDigests(digests);
+        }
+        statusChangeRepo.deleteAllByIdInBatch(changes.stream().map(StatusChange::getId).toList());
+
+        changesMerged.increment(changes.size());
+        emailsQueued.increment(digests.size());
+        logger.info("Merged {} status changes for {} recipients into {} emails",
+                changes.size(), byRecipient.size(), digests.size());
+        return byRecipient.size();
+    }
+
+    // Changes are in id (insertion) order; keep the first old and last new status per project
+    private static List<EmailService.StatusUpdate> netChanges(List<StatusChange> changes) {
+        Map<Integer, EmailService.StatusUpdate> byProject = new LinkedHashMap<>();
+        for (StatusChange change : changes) {
+            byProject.merge(change.getProjId(),
+                    new EmailService.StatusUpdate(change.getRecipient(), change.getProjId(), change.getProjectName(),
+                            change.getOldStatus(), change.getNewStatus()),
+                    (first, latest) -> new EmailService.StatusUpdate(first.to(), first.projId(), latest.projectName(),
+                            first.oldStatus(), latest.newStatus()));
+        }
+        return byProject.values().stream()
+                .filter(update -> !Objects.equals(update.oldStatus(), update.newStatus()))
+                .toList();
+    }
+}
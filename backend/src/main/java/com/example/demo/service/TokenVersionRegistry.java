@@ -0,0 +1,61 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepo;
+import com.example.demo.util.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * In-memory view of each user's token version. Tokens carry the version they were
+ * issued with; bumping a user's version revokes every token issued before it.
+ * Entries expire after a short TTL so a bump made by another instance is picked up
+ * from the database within that window.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepo userRepository;
+    private final BoundedCache<Long, Integer> versions;
+
+    public TokenVersionRegistry(
+            UserRepo userRepository,
+            @Value("${jwt.token-version.cache-size:10000}") int maxSize,
+            @Value("${jwt.token-version.ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = new BoundedCache<>(maxSize, ttl);
+    }
+
+    /**
+     * True if a token issued with this version is still valid for the user
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.get(userId, id -> userRepository.findTokenVersionById(id).orElse(null));
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Increments the user's token version. The caller saves the user. Inside a transaction
+     * the cached version only changes once it commits, so a rollback leaves the old tokens
+     * valid rather than rejecting them until the entry expires.
+     */
+    public void bump(User user) {
+        Long userId = user.getId();
+        int next = user.getTokenVersion() + 1;
+        user.setTokenVersion(next);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.put(userId, next);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.put(userId, next);
+            }
+        });
+    }
+}
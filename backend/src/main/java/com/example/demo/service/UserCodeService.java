@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserCode;
+import com.example.demo.repository.UserCodeRepo;
+import com.example.demo.util.CodeGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Issues and checks the one-time codes emailed to users. Codes are stored only as an
+ * HMAC-SHA256 (keyed with a server secret, bound to the user and purpose), looked up by the
+ * indexed (user, purpose) pair and compared in constant time, so neither a database dump nor
+ * response timing reveals a usable code.
+ */
+@Service
+public class UserCodeService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final UserCodeRepo userCodeRepo;
+    private final CodeGenerator codeGenerator;
+    private final SecretKeySpec key;
+
+    public UserCodeService(UserCodeRepo userCodeRepo,
+                           CodeGenerator codeGenerator,
+                           @Value("${app.security.codes.secret:${jwt.secret}}") String secret) {
+        this.userCodeRepo = userCodeRepo;
+        this.codeGenerator = codeGenerator;
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * Generate a new code for the user, replacing any previous code with the same purpose.
+     * Returns the plain code, to be emailed; it is not stored.
+     */
+    public String issue(Long userId, String purpose, Duration validFor) {
+        String code = codeGenerator.generateCode();
+        LocalDateTime now = LocalDateTime.now();
+        userCodeRepo.upsert(userId, purpose, hash(userId, purpose, code), now.plus(validFor), now);
+        return code;
+    }
+
+    /**
+     * Store a code issued by an earlier version (kept in plaintext on users), unless the user
+     * already has a code for the purpose. Returns whether it was stored.
+     */
+    public boolean importLegacy(Long userId, String purpose, String code, LocalDateTime expiresAt) {
+        String codeHash = hash(userId, purpose, code.trim().toUpperCase());
+        return userCodeRepo.insertIfAbsent(userId, purpose, codeHash, expiresAt, LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * The user's code for the purpose if it matches the given one (expired or not), else null
+     */
+    public UserCode findMatching(Long userId, String purpose, String code) {
+        UserCode userCode = userCodeRepo.findByUserIdAndPurpose(userId, purpose).orElse(null);
+        if (userCode == null || code == null) {
+            return null;
+        }
+        byte[] expected = userCode.getCodeHash().getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = hash(userId, purpose, code.trim().toUpperCase()).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, actual) ? userCode : null;
+    }
+
+    /**
+     * Codes are single use: delete once the action they authorize is done
+     */
+    public void consume(UserCode userCode) {
+        userCodeRepo.delete(userCode);
+    }
+
+    private String hash(Long userId, String purpose, String code) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal((userId + ":" + purpose + ":" + code).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot hash code", e);
+        }
+    }
+}
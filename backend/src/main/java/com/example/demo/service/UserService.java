@@ -6,17 +6,15 @@ import com.example.demo.dto.response.MessageResponse;
 import com.example.demo.dto.response.UserDTO;
 import com.example.demo.exception.*;
 import com.example.demo.model.User;
+import com.example.demo.model.UserCode;
 import com.example.demo.repository.UserRepo;
-import com.example.demo.util.CodeGenerator;
 import com.example.demo.util.JwtUtil;
 import com.example.demo.util.PasswordValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -24,14 +22,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.List;
 
 @Service
 public class UserService implements UserDetailsService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
-    private static final int CODE_EXPIRY_MINUTES = 15;
+    private static final Duration CODE_VALIDITY = Duration.ofMinutes(15);
 
     @Autowired
     private UserRepo userRepository;
@@ -46,17 +44,26 @@ public class UserService implements UserDetailsService {
     private EmailService emailService;
 
     @Autowired
-    private CodeGenerator codeGenerator;
+    private UserCodeService userCodeService;
 
     @Autowired
     private PasswordValidator passwordValidator;
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private CompanyService companyService;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    // Hash compared against when the email is unknown (computed on first use)
+    private volatile String userNotFoundPassword;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return userRepository.findByEmail(email)
+        return principalCache.get(email, userRepository::findByEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
     }
 
@@ -78,10 +85,6 @@ public class UserService implements UserDetailsService {
             throw new InvalidPasswordException(passwordErrors);
         }
 
-        // Generate verification code
-        String verificationCode = codeGenerator.generateCode();
-        LocalDateTime codeExpiry = LocalDateTime.now().plusMinutes(CODE_EXPIRY_MINUTES);
-
         // Create user with companyName and default role
         User user = User.builder()
                 .firstName(request.getFirstName())
@@ -89,18 +92,18 @@ public class UserService implements UserDetailsService {
                 .email(request.getEmail().toLowerCase())
                 .password(passwordEncoder.encode(request.getPassword()))
                 .companyName(request.getCompanyName())
+                .companyId(companyService.resolveCompanyId(request.getCompanyName()))
                 .role("USER") // Default role is USER
                 .emailVerified(false)
                 .enabled(false)
-                .verificationCode(verificationCode)
-                .verificationCodeExpiry(codeExpiry)
                 .build();
 
         userRepository.save(user);
+        String verificationCode = userCodeService.issue(user.getId(), UserCode.VERIFICATION, CODE_VALIDITY);
         logger.info("User registered successfully: {} for company: {}", user.getEmail(), user.getCompanyName());
 
-        // Send verification email
-        emailService.sendVerificationEmail(user.getEmail(), user.getFirstName(), verificationCode);
+        // Queue verification email (sent once this transaction commits)
+        emailService.queueVerificationEmail(user.getEmail(), user.getFirstName(), verificationCode);
 
         return AuthResponse.success("Registration successful! Please check your email for the verification code.");
     }
@@ -116,21 +119,22 @@ public class UserService implements UserDetailsService {
         }
 
         // Check verification code
-        if (user.getVerificationCode() == null || !user.getVerificationCode().equals(request.getCode().toUpperCase())) {
+        UserCode code = userCodeService.findMatching(user.getId(), UserCode.VERIFICATION, request.getCode());
+        if (code == null) {
             throw new InvalidCodeException("Invalid verification code");
         }
 
         // Check if code is expired
-        if (user.getVerificationCodeExpiry() == null || LocalDateTime.now().isAfter(user.getVerificationCodeExpiry())) {
+        if (code.isExpired()) {
             throw new CodeExpiredException("Verification code has expired. Please request a new one.");
         }
 
         // Verify user
         user.setEmailVerified(true);
         user.setEnabled(true);
-        user.setVerificationCode(null);
-        user.setVerificationCodeExpiry(null);
         userRepository.save(user);
+        userCodeService.consume(code);
+        principalCache.invalidate(user.getEmail());
 
         logger.info("Email verified successfully for user: {}", user.getEmail());
 
@@ -147,52 +151,65 @@ public class UserService implements UserDetailsService {
             return MessageResponse.success("Email is already verified. You can login now.");
         }
 
-        // Generate new verification code
-        String verificationCode = codeGenerator.generateCode();
-        LocalDateTime codeExpiry = LocalDateTime.now().plusMinutes(CODE_EXPIRY_MINUTES);
+        // Generate new verification code (replaces the previous one)
+        String verificationCode = userCodeService.issue(user.getId(), UserCode.VERIFICATION, CODE_VALIDITY);
 
-        user.setVerificationCode(verificationCode);
-        user.setVerificationCodeExpiry(codeExpiry);
-        userRepository.save(user);
-
-        // Send verification email
-        emailService.sendVerificationEmail(user.getEmail(), user.getFirstName(), verificationCode);
+        // Queue verification email (sent once this transaction commits)
+        emailService.queueVerificationEmail(user.getEmail(), user.getFirstName(), verificationCode);
 
         logger.info("Verification code resent to: {}", user.getEmail());
 
         return MessageResponse.success("A new verification code has been sent to your email.");
     }
 
+    /**
+     * Log in with a single user lookup: the entity loaded here is checked, verified against
+     * the password and used for both the token and the response.
+     */
     public AuthResponse loginUser(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail().toLowerCase())
-                .orElseThrow(() -> new BadCredentialsException("Invalid email or password"));
+        User user = userRepository.findByEmail(request.getEmail().toLowerCase()).orElse(null);
+        if (user == null) {
+            // Spend the same hashing time as a wrong password, so timing does not reveal which emails exist
+            passwordEncoder.matches(request.getPassword(), userNotFoundPassword());
+            throw new BadCredentialsException("Invalid email or password");
+        }
 
         // Check if email is verified
         if (!user.getEmailVerified()) {
             throw new EmailNotVerifiedException("Please verify your email before logging in. Check your inbox for the verification code.");
         }
+        if (!user.isEnabled()) {
+            throw new DisabledException("User is disabled");
+        }
+
+        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+            throw new BadCredentialsException("Invalid email or password");
+        }
 
-        // Authenticate user
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail().toLowerCase(),
-                            request.getPassword()
-                    )
-            );
+        // Re-hash with the current BCrypt cost if it has been raised since the password was set
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+            principalCache.invalidate(user.getEmail());
+            logger.info("Upgraded password hash for user: {}", user.getEmail());
+        }
 
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            String token = jwtUtil.generateToken(userDetails);
+        String token = jwtUtil.generateToken(user);
+        UserDTO userDTO = mapToUserDTO(user);
 
-            UserDTO userDTO = mapToUserDTO(user);
+        logger.info("User logged in successfully: {} (role: {}, company: {})",
+                user.getEmail(), user.getRole(), user.getCompanyName());
 
-            logger.info("User logged in successfully: {} (role: {}, company: {})",
-                    user.getEmail(), user.getRole(), user.getCompanyName());
+        return AuthResponse.success("Login successful", token, userDTO);
+    }
 
-            return AuthResponse.success("Login successful", token, userDTO);
-        } catch (BadCredentialsException e) {
-            throw new BadCredentialsException("Invalid email or password");
+    private String userNotFoundPassword() {
+        String encoded = userNotFoundPassword;
+        if (encoded == null) {
+            encoded = passwordEncoder.encode("userNotFoundPassword");
+            userNotFoundPassword = encoded;
         }
+        return encoded;
     }
 
     @Transactional
@@ -206,15 +223,10 @@ public class UserService implements UserDetailsService {
         }
 
         // Generate reset code
-        String resetCode = codeGenerator.generateCode();
-        LocalDateTime codeExpiry = LocalDateTime.now().plusMinutes(CODE_EXPIRY_MINUTES);
-
-        user.setPasswordResetCode(resetCode);
-        user.setPasswordResetCodeExpiry(codeExpiry);
-        userRepository.save(user);
+        String resetCode = userCodeService.issue(user.getId(), UserCode.PASSWORD_RESET, CODE_VALIDITY);
 
-        // Send password reset email
-        emailService.sendPasswordResetEmail(user.getEmail(), user.getFirstName(), resetCode);
+        // Queue password reset email (sent once this transaction commits)
+        emailService.queuePasswordResetEmail(user.getEmail(), user.getFirstName(), resetCode);
 
         logger.info("Password reset code sent to: {}", user.getEmail());
 
@@ -227,12 +239,13 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with email: " + request.getEmail()));
 
         // Check reset code
-        if (user.getPasswordResetCode() == null || !user.getPasswordResetCode().equals(request.getCode().toUpperCase())) {
+        UserCode code = userCodeService.findMatching(user.getId(), UserCode.PASSWORD_RESET, request.getCode());
+        if (code == null) {
             throw new InvalidCodeException("Invalid password reset code");
         }
 
         // Check if code is expired
-        if (user.getPasswordResetCodeExpiry() == null || LocalDateTime.now().isAfter(user.getPasswordResetCodeExpiry())) {
+        if (code.isExpired()) {
             throw new CodeExpiredException("Password reset code has expired. Please request a new one.");
         }
 
@@ -249,9 +262,11 @@ public class UserService implements UserDetailsService {
 
         // Update password
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        user.setPasswordResetCode(null);
-        user.setPasswordResetCodeExpiry(null);
+        userCodeService.consume(code);
+        // Revoke every token issued with the old password
+        tokenVersionRegistry.bump(user);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
 
         logger.info("Password reset successfully for user: {}", user.getEmail());
 
@@ -0,0 +1,126 @@
+package com.example.demo.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process LRU cache with a per-entry time-to-live and a hard size bound.
+ * Thread-safe; all map operations are guarded by the instance lock, while loaders
+ * run outside it so a slow load never blocks readers of other keys.
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedCache(int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        return lookup(key, System.nanoTime());
+    }
+
+    /**
+     * Returns the cached value, loading and caching it on a miss.
+     * A null result from the loader is returned but not cached.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * Caches a value until the given {@link System#nanoTime()} deadline, or the configured TTL if sooner
+     */
+    public synchronized void put(K key, V value, long expiresAtNanos) {
+        long deadline = Math.min(expiresAtNanos, System.nanoTime() + ttlNanos);
+        entries.put(key, new Entry<>(value, deadline));
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry whose key matches. Linear in the (bounded) cache size.
+     */
+    public synchronized int invalidateIf(Predicate<? super K> predicate) {
+        int before = entries.size();
+        entries.keySet().removeIf(predicate);
+        return before - entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private synchronized V lookup(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (now - entry.expiresAtNanos >= 0) {
+            entries.remove(key);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.util;
+
+/**
+ * Spreadsheet formula guard for CSV cells. On export a value starting with a formula
+ * character ({@code = + - @}) gets a leading apostrophe so spreadsheets show it as text;
+ * a value that already starts with an apostrophe gets one too, so that the import can
+ * remove exactly one and every value survives an export/import round trip unchanged.
+ */
+public final class CsvFormulaGuard {
+
+    private static final String GUARDED = "=+-@'";
+
+    private CsvFormulaGuard() {
+    }
+
+    public static String guard(String value) {
+        if (!value.isEmpty() && GUARDED.indexOf(value.charAt(0)) >= 0) {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    public static String unguard(String value) {
+        if (value.length() > 1 && value.charAt(0) == '\'' && GUARDED.indexOf(value.charAt(1)) >= 0) {
+            return value.substring(1);
+        }
+        return value;
+    }
+}
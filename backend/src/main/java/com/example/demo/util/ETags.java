@@ -0,0 +1,67 @@
+package com.example.demo.util;
+
+import com.example.demo.repository.ProjectCollectionStamp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Strong entity tags for project resources, computed from data that can be read without
+ * loading the resource itself, so If-None-Match can be answered before any entity is loaded.
+ */
+public final class ETags {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private ETags() {
+    }
+
+    /**
+     * A single project changes exactly when its version does
+     */
+    public static String forProject(int projId, Long version) {
+        return "\"" + projId + "-" + version + "\"";
+    }
+
+    /**
+     * Whether an If-Match header value (one or more comma-separated tags, or "*") matches
+     * the current tag
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A list response depends on the projects visible to the caller (scope and stamp)
+     * and on the query that selected the page. This is the admin view of all companies.
+     */
+    public static String forProjectList(ProjectCollectionStamp stamp, String query) {
+        return forProjectList("*", stamp, query);
+    }
+
+    /**
+     * The list of one company's projects
+     */
+    public static String forCompanyProjectList(long companyId, ProjectCollectionStamp stamp, String query) {
+        return forProjectList(Long.toString(companyId), stamp, query);
+    }
+
+    private static String forProjectList(String scope, ProjectCollectionStamp stamp, String query) {
+        String raw = scope + "|" + stamp.count() + "|"
+                + stamp.lastUpdated() + "|" + (query == null ? "" : query);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return "\"" + ENCODER.encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTML template compiled once into literal segments and variable slots.
+ * <p>
+ * Placeholders are written {{name}}. Rendering appends the literals and the HTML-escaped
+ * values into one buffer sized up front; nothing is parsed per render. Values known at
+ * startup can be folded into the literals with {@link #bind}.
+ * Instances are immutable and thread-safe.
+ */
+public final class HtmlTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final List<String> variables;
+    // literals[i] comes before slot i; literals has one more element than slots
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+
+    private HtmlTemplate(List<String> variables, String[] literals, int[] slots) {
+        this.variables = List.copyOf(variables);
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compile a template whose placeholders are all among the given variables, in render order
+     */
+    public static HtmlTemplate compile(String source, String... variables) {
+        List<String> names = List.of(variables);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int from = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, from)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            int slot = names.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Unknown placeholder {{" + name + "}}");
+            }
+            literals.add(source.substring(from, open));
+            slots.add(slot);
+            from = close + CLOSE.length();
+        }
+        literals.add(source.substring(from));
+
+        return new HtmlTemplate(names, literals.toArray(String[]::new),
+                slots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Template with the variable replaced by the (escaped) value everywhere, merged into the literals
+     */
+    public HtmlTemplate bind(String name, String value) {
+        int bound = variables.indexOf(name);
+        if (bound < 0) {
+            throw new IllegalArgumentException("Unknown variable " + name);
+        }
+        List<String> remaining = new ArrayList<>(variables);
+        remaining.remove(bound);
+
+        List<String> newLiterals = new ArrayList<>();
+        List<Integer> newSlots = new ArrayList<>();
+        StringBuilder current = new StringBuilder(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == bound) {
+                escape(value, current);
+            } else {
+                newLiterals.add(current.toString());
+                newSlots.add(slots[i] > bound ? slots[i] - 1 : slots[i]);
+                current.setLength(0);
+            }
+            current.append(literals[i + 1]);
+        }
+        newLiterals.add(current.toString());
+
+        return new HtmlTemplate(remaining, newLiterals.toArray(String[]::new),
+                newSlots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Render with values in the order of the remaining variables; null renders as empty
+     */
+    public String render(String... values) {
+        StringBuilder out = new StringBuilder(literalLength + 32 * slots.length);
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    public void renderTo(StringBuilder out, String... values) {
+        if (values.length != variables.size()) {
+            throw new IllegalArgumentException("Expected values for " + variables + ", got " + values.length);
+        }
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            escape(values[slots[i]], out);
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    static void escape(String value, StringBuilder out) {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                // Copy the run of safe characters in one call
+                out.append(value, start, i).append(replacement);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.demo.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JavaMailSender that keeps authenticated SMTP connections open between sends.
+ * <p>
+ * {@link JavaMailSenderImpl} connects (TCP, STARTTLS, AUTH) for every send call and checks
+ * the connection with a NOOP before every message. Here each send borrows a connection from
+ * a small pool and returns it afterwards. A connection is checked with NOOP only when it has
+ * been idle for a while. Connections idle too long, or that reached the per-connection message
+ * limit, are closed. A message that fails because a reused connection dropped is retried once
+ * on a new connection.
+ */
+public class PooledMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledMailSender.class);
+
+    private final Deque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final Duration borrowTimeout;
+    private final Duration maxIdle;
+    private final Duration validateAfter;
+    private final int maxMessagesPerConnection;
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter connectionsOpened;
+
+    public PooledMailSender(int poolSize, Duration borrowTimeout, Duration maxIdle, Duration validateAfter,
+                            int maxMessagesPerConnection, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(poolSize, true);
+        this.borrowTimeout = borrowTimeout;
+        this.maxIdle = maxIdle;
+        this.validateAfter = validateAfter;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.connectionsOpened = Counter.builder("email.smtp.connections.opened")
+                .description("SMTP connections established")
+                .register(meterRegistry);
+        Gauge.builder("email.smtp.connections.open", open, AtomicInteger::get)
+                .description("Open SMTP connections, idle or in use")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        PooledTransport connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessages[i];
+                if (connection == null) {
+                    try {
+                        connection = borrow();
+                    } catch (AuthenticationFailedException e) {
+                        throw new MailAuthenticationException(e);
+                    } catch (MessagingException e) {
+                        // Remaining messages all failed
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], e);
+                        }
+                        throw new MailSendException("Mail server connection failed", e, failedMessages);
+                    }
+                }
+
+                try {
+                    prepare(mimeMessages[i]);
+                    try {
+                        sendMessage(connection, mimeMessages[i]);
+                    } catch (MessagingException e) {
+                        if (!connection.reused || connection.transport.isConnected()) {
+                            throw e;
+                        }
+                        // The server closed the pooled connection while it sat idle
+                        logger.debug("Pooled SMTP connection was dropped, reconnecting: {}", e.getMessage());
+                        discard(connection);
+                        connection = null;
+                        connection = borrowNew();
+                        sendMessage(connection, mimeMessages[i]);
+                    }
+                    connection.reused = false;
+                } catch (MessagingException e) {
+                    failedMessages.put(original, e);
+                    if (connection != null && !connection.transport.isConnected()) {
+                        discard(connection);
+                        connection = null;
+                    }
+                    continue;
+                }
+
+                if (connection.messagesSent >= maxMessagesPerConnection) {
+                    discard(connection);
+                    connection = null;
+                }
+            }
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Close connections that have been idle longer than max-idle, before the server drops them
+     */
+    @Scheduled(fixedDelayString = "${app.mail.pool.evict-interval:PT1M}")
+    public void evictIdle() {
+        List<PooledTransport> expired = new ArrayList<>();
+        idle.removeIf(connection -> connection.idleFor().compareTo(maxIdle) > 0 && expired.add(connection));
+        expired.forEach(this::close);
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private void sendMessage(PooledTransport connection, MimeMessage message) throws MessagingException {
+        Address[] recipients = message.getAllRecipients();
+        connection.transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+        connection.messagesSent++;
+    }
+
+    // Same header handling as JavaMailSenderImpl.doSend
+    private void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // saveChanges() replaces the Message-ID; keep one that was set explicitly
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        acquirePermit();
+        try {
+            PooledTransport connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (connection.idleFor().compareTo(maxIdle) > 0) {
+                    close(connection);
+                } else if (connection.idleFor().compareTo(validateAfter) > 0 && !connection.transport.isConnected()) {
+                    // isConnected() sends NOOP on SMTP
+                    close(connection);
+                } else {
+                    connection.reused = true;
+                    return connection;
+                }
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // New connection, skipping the idle ones
+    private PooledTransport borrowNew() throws MessagingException {
+        acquirePermit();
+        try {
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquirePermit() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection available within " + borrowTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = connectTransport();
+        open.incrementAndGet();
+        connectionsOpened.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport connection) {
+        connection.lastUsed = System.nanoTime();
+        idle.offerFirst(connection);
+        permits.release();
+    }
+
+    private void discard(PooledTransport connection) {
+        close(connection);
+        permits.release();
+    }
+
+    private void close(PooledTransport connection) {
+        open.decrementAndGet();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private long lastUsed = System.nanoTime();
+        private int messagesSent;
+        // Taken from the idle pool and not yet known to be alive
+        private boolean reused;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        Duration idleFor() {
+            return Duration.ofNanos(System.nanoTime() - lastUsed);
+        }
+    }
+}
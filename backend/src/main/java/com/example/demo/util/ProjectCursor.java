@@ -0,0 +1,55 @@
+package com.example.demo.util;
+
+import com.example.demo.exception.InvalidQueryException;
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.repository.ProjectSort;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in the project list: the sort column value and projId of the last row
+ * returned. Encoded together with the ordering it was issued for, as an opaque URL-safe
+ * string, so a cursor cannot be replayed against a different sort.
+ */
+public record ProjectCursor(ProjectSort sort, Sort.Direction direction, LocalDateTime value, int projId) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static ProjectCursor after(ProjectSummaryDTO project, ProjectSort sort, Sort.Direction direction) {
+        LocalDateTime value = sort == ProjectSort.CREATED_DATE
+                ? project.getCreatedDate()
+                : project.getUpdatedDate();
+        return new ProjectCursor(sort, direction, value, project.getProjId());
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + direction.name() + "|" + value + "|" + projId;
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously returned by {@link #encode()} for the same ordering.
+     * Returns null for a blank cursor (first page).
+     */
+    public static ProjectCursor decode(String cursor, ProjectSort sort, Sort.Direction direction) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 4
+                    || ProjectSort.valueOf(parts[0]) != sort
+                    || Sort.Direction.valueOf(parts[1]) != direction) {
+                throw new InvalidQueryException("Invalid cursor");
+            }
+            return new ProjectCursor(sort, direction, LocalDateTime.parse(parts[2]), Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidQueryException("Invalid cursor");
+        }
+    }
+}
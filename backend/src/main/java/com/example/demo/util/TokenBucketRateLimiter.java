@@ -0,0 +1,132 @@
+package com.example.demo.util;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per key: each key may spend {@code capacity} requests at once, refilled
+ * evenly over {@code refillPeriod}. Buckets live in a fixed set of lock stripes (plain
+ * HashMaps guarded by their own monitor), so concurrent keys rarely contend and a check on a
+ * known key allocates nothing. Each stripe holds at most {@code maxKeysPerStripe} buckets;
+ * buckets that have refilled completely carry no state and are dropped by {@link #evictIdle()}
+ * or when a stripe is full.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long capacity;
+    private final long nanosPerToken;
+    private final int maxKeysPerStripe;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, int stripes, int maxKeysPerStripe) {
+        this(capacity, refillPeriod, stripes, maxKeysPerStripe, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, int stripes, int maxKeysPerStripe, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.maxKeysPerStripe = maxKeysPerStripe;
+        this.clock = clock;
+        // Power of two, so the stripe is picked with a mask
+        int count = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take one token for the key. Returns 0 if the request may proceed, otherwise how long
+     * (in nanoseconds) until the next token is available.
+     */
+    public long tryAcquire(String key) {
+        int hash = key.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= maxKeysPerStripe) {
+                    stripe.evict(now, true);
+                }
+                bucket = new Bucket(now - capacity * nanosPerToken);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.take(now);
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely; they behave exactly like a missing bucket.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.evict(now, false);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private final class Stripe {
+
+        private final Map<String, Bucket> buckets = new HashMap<>();
+
+        void evict(long now, boolean makeRoom) {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            if (makeRoom && buckets.size() >= maxKeysPerStripe) {
+                // Every key is active: forget one rather than grow without bound
+                Iterator<Bucket> it = buckets.values().iterator();
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * The bucket state is a single timestamp: the time at which it would be empty. Tokens
+     * available now are (now - emptyAt) / nanosPerToken, capped at capacity.
+     */
+    private final class Bucket {
+
+        private long emptyAt;
+
+        Bucket(long emptyAt) {
+            this.emptyAt = emptyAt;
+        }
+
+        long take(long now) {
+            long full = now - capacity * nanosPerToken;
+            if (emptyAt < full) {
+                emptyAt = full;
+            }
+            long next = emptyAt + nanosPerToken;
+            if (next > now) {
+                return next - now;
+            }
+            emptyAt = next;
+            return 0;
+        }
+
+        boolean isFull(long now) {
+            return emptyAt <= now - capacity * nanosPerToken;
+        }
+    }
+}
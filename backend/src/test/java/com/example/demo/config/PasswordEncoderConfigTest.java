@@ -0,0 +1,51 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordEncoderConfigTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void calibrationPicksTheCostClosestToTheTarget() {
+        // Each cost step doubles the time: 50 ms at cost 10 is 100 ms at 11 and 200 ms at 12
+        assertEquals(10, PasswordEncoderConfig.strengthFor(Duration.ofMillis(60), 50 * MS));
+        assertEquals(11, PasswordEncoderConfig.strengthFor(Duration.ofMillis(100), 50 * MS));
+        assertEquals(12, PasswordEncoderConfig.strengthFor(Duration.ofMillis(250), 50 * MS));
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        assertEquals(10, PasswordEncoderConfig.strengthFor(Duration.ofMillis(1), 50 * MS));
+        assertEquals(16, PasswordEncoderConfig.strengthFor(Duration.ofHours(1), 50 * MS));
+    }
+
+    @Test
+    void calibratedEncoderNeverGoesBelowTheMinimumCost() {
+        PasswordEncoder encoder = encoder(12, Duration.ofNanos(1));
+
+        assertTrue(encoder.encode("secret").startsWith("$2a$10$"));
+    }
+
+    @Test
+    void hashesWithALowerCostAreUpgradedOnLogin() {
+        PasswordEncoder encoder = encoder(10, null);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+
+    private static PasswordEncoder encoder(int strength, Duration targetLatency) {
+        return new PasswordEncoderConfig().passwordEncoder(strength, targetLatency, 1, 5,
+                Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepo;
+import com.example.demo.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "management.endpoints.web.exposure.include=health,metrics",
+        // No SMTP server in tests
+        "management.health.mail.enabled=false"
+})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @AfterEach
+    void cleanUp() {
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void metricsAreForAdminsOnly() throws Exception {
+        String user = jwtUtil.generateToken(userRepo.save(user("user@example.com", "USER")));
+        String admin = jwtUtil.generateToken(userRepo.save(user("admin@example.com", "ADMIN")));
+
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + user))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + admin))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void browserCanReadRetryAfterAndETag() throws Exception {
+        mockMvc.perform(get("/actuator/health").header(HttpHeaders.ORIGIN, "http://localhost:5173"))
+                .andExpect(header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                        "Authorization, Retry-After, ETag"));
+    }
+
+    private static User user(String email, String role) {
+        return User.builder()
+                .email(email)
+                .password("hash")
+                .firstName("Test")
+                .lastName("User")
+                .companyName("Acme")
+                .companyId(1L)
+                .role(role)
+                .emailVerified(true)
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+
+    private static final Duration PERIOD = Duration.ofMillis(400);
+
+    // Two logins per email and IP, one email per address, each refilled over PERIOD
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new AuthEchoController())
+            .addFilters(new RateLimitFilter(true, 100, 2, PERIOD, 100, 1, PERIOD, 1000,
+                    new ObjectMapper(), new SimpleMeterRegistry()))
+            .build();
+
+    @Test
+    void rejectsWithRetryAfterOnceTheEmailBucketIsEmpty() throws Exception {
+        mockMvc.perform(login("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(login("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+
+        mockMvc.perform(login("a@example.com", "10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void loginBucketsAreKeptPerClientAddress() throws Exception {
+        mockMvc.perform(login("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(login("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(login("a@example.com", "10.0.0.1")).andExpect(status().isTooManyRequests());
+
+        // Someone else guessing from elsewhere does not lock the owner out
+        mockMvc.perform(login("a@example.com", "10.0.0.2")).andExpect(status().isOk());
+    }
+
+    @Test
+    void mailBucketIsSharedAcrossAddresses() throws Exception {
+        mockMvc.perform(forgotPassword("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(forgotPassword("a@example.com", "10.0.0.2")).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void refillsOverThePeriod() throws Exception {
+        mockMvc.perform(forgotPassword("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+        mockMvc.perform(forgotPassword("a@example.com", "10.0.0.1")).andExpect(status().isTooManyRequests());
+
+        Thread.sleep(PERIOD.toMillis() + 100);
+        mockMvc.perform(forgotPassword("a@example.com", "10.0.0.1")).andExpect(status().isOk());
+    }
+
+    @Test
+    void controllerStillReadsTheBody() throws Exception {
+        mockMvc.perform(login("Reader@Example.com", "10.0.0.1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"email\":\"Reader@Example.com\"}"));
+        mockMvc.perform(post("/api/auth/resend-code").servletPath("/api/auth/resend-code")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body("async@example.com")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"email\":\"async@example.com\"}"));
+    }
+
+    private static RequestBuilder login(String email, String ip) {
+        return request("/api/auth/login", email, ip);
+    }
+
+    private static RequestBuilder forgotPassword(String email, String ip) {
+        return request("/api/auth/forgot-password", email, ip);
+    }
+
+    private static RequestBuilder request(String path, String email, String ip) {
+        return post(path).servletPath(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body(email))
+                .with(request -> {
+                    request.setRemoteAddr(ip);
+                    return request;
+                });
+    }
+
+    private static String body(String email) {
+        return "{\"email\":\"" + email + "\"}";
+    }
+
+    @RestController
+    static class AuthEchoController {
+
+        @PostMapping({"/api/auth/login", "/api/auth/forgot-password"})
+        String echo(@RequestBody String body) {
+            return body;
+        }
+
+        // Reads the body the way an async servlet would, through a ReadListener
+        @PostMapping("/api/auth/resend-code")
+        String echoAsync(HttpServletRequest request) throws IOException {
+            ServletInputStream in = request.getInputStream();
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[256];
+                    int n;
+                    while (in.isReady() && (n = in.read(buffer)) >= 0) {
+                        body.write(buffer, 0, n);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new IllegalStateException(t);
+                }
+            });
+            return body.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
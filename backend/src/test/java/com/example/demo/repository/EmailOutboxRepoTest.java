@@ -0,0 +1,65 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.EmailOutbox;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EmailOutboxRepoTest {
+
+    @Autowired
+    private EmailOutboxRepo repo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void finalRowsLoseTheirBody() {
+        Long sent = repo.save(email()).getId();
+        Long retried = repo.save(email()).getId();
+        Long failed = repo.save(email()).getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        repo.markSent(List.of(sent), now);
+        repo.markAttemptFailed(retried, EmailOutbox.PENDING, 1, now, "timeout");
+        repo.markAttemptFailed(failed, EmailOutbox.FAILED, 8, now, "timeout");
+        entityManager.clear();
+
+        assertEquals("", repo.findById(sent).orElseThrow().getBody());
+        assertEquals("Your code is 123456", repo.findById(retried).orElseThrow().getBody());
+        assertEquals("", repo.findById(failed).orElseThrow().getBody());
+    }
+
+    @Test
+    void purgesSentAndFailedRowsPastRetention() {
+        Long sent = repo.save(email()).getId();
+        Long failed = repo.save(email()).getId();
+        Long pending = repo.save(email()).getId();
+        LocalDateTime now = LocalDateTime.now();
+        repo.markSent(List.of(sent), now);
+        repo.markAttemptFailed(failed, EmailOutbox.FAILED, 8, now, "timeout");
+
+        assertEquals(2, repo.deleteFinishedBefore(now.plusSeconds(1)));
+        entityManager.clear();
+        assertTrue(repo.findById(pending).isPresent());
+    }
+
+    private static EmailOutbox email() {
+        return EmailOutbox.builder()
+                .type("VERIFICATION")
+                .recipient("user@example.com")
+                .subject("Verify your email")
+                .body("Your code is 123456")
+                .build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.repository;
+
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.model.Project;
+import com.example.demo.util.ProjectCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ProjectRepoTest {
+
+    @Autowired
+    private ProjectRepo repo;
+
+    @Test
+    void keysetPagesBreakTiesOnProjId() {
+        LocalDateTime same = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(repo.save(project(1L, i < 4 ? same : same.minusDays(1))).getProjId());
+        }
+        // Newest first; equal timestamps in descending projId order
+        List<Integer> newestFirst = List.of(expected.get(3), expected.get(2), expected.get(1), expected.get(0), expected.get(4));
+
+        List<Integer> seen = new ArrayList<>();
+        ProjectCursor cursor = null;
+        do {
+            Specification<Project> spec = Specification.where(ProjectSpecifications.belongsToCompany(1L))
+                    .and(ProjectSpecifications.after(cursor, ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+            List<ProjectSummaryDTO> page = repo.findSummaries(spec,
+                    ProjectSpecifications.orderBy(ProjectSort.UPDATED_DATE, Sort.Direction.DESC), 2);
+            page.forEach(p -> seen.add(p.getProjId()));
+            cursor = page.size() < 2 ? null
+                    : ProjectCursor.after(page.get(page.size() - 1), ProjectSort.UPDATED_DATE, Sort.Direction.DESC);
+        } while (cursor != null);
+
+        assertEquals(newestFirst, seen);
+    }
+
+    static Project project(Long companyId, LocalDateTime updated) {
+        Project project = new Project();
+        project.setProjName("Project");
+        project.setCompanyId(companyId);
+        project.setStatus("Active");
+        project.setCurrPhase("Preclinical");
+        project.setCreatedDate(updated);
+        project.setUpdatedDate(updated);
+        return project;
+    }
+}
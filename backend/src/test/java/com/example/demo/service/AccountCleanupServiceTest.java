@@ -0,0 +1,157 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.model.UserCode;
+import com.example.demo.repository.UserCodeRepo;
+import com.example.demo.repository.UserRepo;
+import com.example.demo.util.CodeGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: the sweep runs its own short transactions, as it does on the scheduler
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AccountCleanupServiceTest {
+
+    // Plaintext code columns left on users by earlier versions
+    private static final List<String> LEGACY_COLUMNS = List.of(
+            "verification_code VARCHAR(255)", "verification_code_expiry TIMESTAMP",
+            "password_reset_code VARCHAR(255)", "password_reset_code_expiry TIMESTAMP");
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private UserCodeRepo userCodeRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserCodeService userCodeService;
+    private AccountCleanupService service;
+
+    @BeforeEach
+    void setUp() {
+        userCodeService = new UserCodeService(userCodeRepo, new CodeGenerator(), "test-secret");
+        service = new AccountCleanupService(userCodeRepo, userCodeService, userRepo,
+                new TransactionTemplate(transactionManager), jdbcTemplate, new SimpleMeterRegistry());
+        // Small batches, so the sweep has to loop
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "unverifiedAccountTtl", Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userCodeRepo.deleteAll();
+        userRepo.deleteAll();
+        LEGACY_COLUMNS.forEach(column ->
+                jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS " + column.split(" ")[0]));
+    }
+
+    @Test
+    void sweepDeletesExpiredCodesAndAbandonedAccounts() {
+        LocalDateTime now = LocalDateTime.now();
+        User verified = userRepo.save(user("verified@example.com", true));
+        User recent = userRepo.save(user("recent@example.com", false));
+        List<Long> abandoned = List.of(
+                userRepo.save(user("old1@example.com", false)).getId(),
+                userRepo.save(user("old2@example.com", false)).getId(),
+                userRepo.save(user("old3@example.com", false)).getId());
+        // createdAt is set on insert, so age the abandoned accounts directly
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id IN (?, ?, ?)",
+                now.minusDays(8), abandoned.get(0), abandoned.get(1), abandoned.get(2));
+
+        userCodeRepo.upsert(verified.getId(), UserCode.PASSWORD_RESET, "a".repeat(64), now.minusMinutes(1), now);
+        userCodeRepo.upsert(recent.getId(), UserCode.VERIFICATION, "b".repeat(64), now.plusMinutes(15), now);
+        userCodeRepo.upsert(abandoned.get(0), UserCode.VERIFICATION, "c".repeat(64), now.plusMinutes(15), now);
+
+        service.sweep();
+
+        assertEquals(List.of(verified.getId(), recent.getId()),
+                userRepo.findAll().stream().map(User::getId).sorted().toList());
+        assertEquals(List.of(recent.getId()),
+                userCodeRepo.findAll().stream().map(UserCode::getUserId).toList());
+    }
+
+    @Test
+    void importsUnexpiredLegacyCodesAndKeepsTheColumns() {
+        LEGACY_COLUMNS.forEach(column -> jdbcTemplate.execute("ALTER TABLE users ADD COLUMN " + column));
+        LocalDateTime now = LocalDateTime.now();
+        Long pending = userRepo.save(user("pending@example.com", false)).getId();
+        Long expired = userRepo.save(user("expired@example.com", false)).getId();
+        Long verified = userRepo.save(user("verified@example.com", true)).getId();
+        Long reissued = userRepo.save(user("reissued@example.com", true)).getId();
+        setLegacyCode(pending, "verification_code", "abc123", now.plusMinutes(10));
+        setLegacyCode(pending, "password_reset_code", "RESET1", now.plusMinutes(10));
+        setLegacyCode(expired, "verification_code", "OLD111", now.minusMinutes(1));
+        setLegacyCode(verified, "verification_code", "USED11", now.plusMinutes(10));
+        setLegacyCode(reissued, "password_reset_code", "LEGACY", now.plusMinutes(10));
+        String newer = userCodeService.issue(reissued, UserCode.PASSWORD_RESET, Duration.ofMinutes(15));
+
+        service.importLegacyCodes();
+        // Running again on the next start changes nothing
+        service.importLegacyCodes();
+
+        assertNotNull(userCodeService.findMatching(pending, UserCode.VERIFICATION, "ABC123"));
+        assertNotNull(userCodeService.findMatching(pending, UserCode.PASSWORD_RESET, "RESET1"));
+        assertTrue(userCodeRepo.findByUserIdAndPurpose(expired, UserCode.VERIFICATION).isEmpty());
+        assertTrue(userCodeRepo.findByUserIdAndPurpose(verified, UserCode.VERIFICATION).isEmpty());
+        assertNotNull(userCodeService.findMatching(reissued, UserCode.PASSWORD_RESET, newer));
+        assertNull(userCodeService.findMatching(reissued, UserCode.PASSWORD_RESET, "LEGACY"));
+        assertEquals(3, userCodeRepo.count());
+
+        // Old instances still read the legacy columns during a rolling deploy
+        assertEquals("abc123", jdbcTemplate.queryForObject(
+                "SELECT verification_code FROM users WHERE id = ?", String.class, pending));
+    }
+
+    @Test
+    void importIsSkippedWithoutLegacyColumns() {
+        userRepo.save(user("new@example.com", false));
+
+        service.importLegacyCodes();
+
+        assertEquals(0, userCodeRepo.count());
+    }
+
+    private void setLegacyCode(Long userId, String column, String code, LocalDateTime expiry) {
+        jdbcTemplate.update("UPDATE users SET " + column + " = ?, " + column + "_expiry = ? WHERE id = ?",
+                code, expiry, userId);
+    }
+
+    private static User user(String email, boolean verified) {
+        return User.builder()
+                .email(email)
+                .password("hash")
+                .firstName("Test")
+                .lastName("User")
+                .companyName("Acme")
+                .emailVerified(verified)
+                .enabled(verified)
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.service;
+
+import com.example.demo.model.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepo;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxRepo outboxRepo = mock(EmailOutboxRepo.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        List<EmailOutbox> due = List.of(email(1L, 0), email(2L, 0));
+        when(outboxRepo.findDueForUpdate(any(), any())).thenReturn(due);
+        when(outboxRepo.countByStatus(EmailOutbox.PENDING)).thenReturn(2L);
+    }
+
+    @Test
+    void sendsBatchAndMarksItSent() throws Exception {
+        dispatcher(greenMail.getSmtp().getPort(), 50).poll();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(2, received.length);
+        assertEquals("Subject 1", received[0].getSubject());
+        verify(outboxRepo).markSent(eq(List.of(1L, 2L)), any());
+        verify(outboxRepo, never()).markAttemptFailed(any(), anyString(), any(Integer.class), any(), any());
+        assertEquals(2, meterRegistry.counter("email.sent").count());
+        assertEquals(1, meterRegistry.timer("email.send").count());
+        assertEquals(2, meterRegistry.get("email.outbox.pending").gauge().value());
+    }
+
+    @Test
+    void fullBatchStartsAnotherClaim() throws Exception {
+        List<EmailOutbox> first = List.of(email(1L, 0), email(2L, 0));
+        List<EmailOutbox> second = List.of(email(3L, 0));
+        when(outboxRepo.findDueForUpdate(any(), any())).thenReturn(first).thenReturn(second);
+
+        dispatcher(greenMail.getSmtp().getPort(), 2).poll();
+
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        verify(outboxRepo, times(2)).findDueForUpdate(any(), any());
+        verify(outboxRepo).markSent(eq(List.of(1L, 2L)), any());
+        verify(outboxRepo).markSent(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void schedulesRetryWithBackoffWhenSmtpIsDown() {
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher(closedPort(), 50).poll();
+
+        verify(outboxRepo, never()).markSent(any(), any());
+        verify(outboxRepo).markAttemptFailed(eq(1L), eq(EmailOutbox.PENDING), eq(1),
+                argThat(retryAt -> !retryAt.isBefore(before.plusSeconds(30))), any());
+        verify(outboxRepo).markAttemptFailed(eq(2L), eq(EmailOutbox.PENDING), eq(1), any(), any());
+        assertEquals(2, meterRegistry.counter("email.send.failures", "outcome", "retry").count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        List<EmailOutbox> due = List.of(email(1L, 7));
+        when(outboxRepo.findDueForUpdate(any(), any())).thenReturn(due);
+
+        dispatcher(closedPort(), 50).poll();
+
+        verify(outboxRepo).markAttemptFailed(eq(1L), eq(EmailOutbox.FAILED), eq(8), any(), any());
+    }
+
+    // The synchronous executor runs each dispatch task inside poll()
+    private EmailOutboxDispatcher dispatcher(int smtpPort, int batchSize) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        return new EmailOutboxDispatcher(outboxRepo, mailSender,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SyncTaskExecutor(), meterRegistry,
+                "noreply@example.com", batchSize, Duration.ofMinutes(5), Duration.ofSeconds(30),
+                Duration.ofHours(1), 8, Duration.ofDays(7));
+    }
+
+    // Port the GreenMail server is not listening on
+    private static int closedPort() {
+        return greenMail.getSmtp().getPort() + 1;
+    }
+
+    private static EmailOutbox email(Long id, int attempts) {
+        return EmailOutbox.builder()
+                .id(id)
+                .type(EmailService.TYPE_STATUS_UPDATE)
+                .recipient("client" + id + "@example.com")
+                .subject("Subject " + id)
+                .body("<p>Status changed</p>")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailTemplatesTest {
+
+    @Test
+    void splitsDigestAtRowsMarkerWithAnyLineEnding() {
+        assertArrayEquals(new String[] {"<table>\n", "</table>\n"},
+                EmailTemplates.splitAtRowsMarker("<table>\n<!-- rows -->\n</table>\n"));
+        assertArrayEquals(new String[] {"<table>\r\n", "</table>\r\n"},
+                EmailTemplates.splitAtRowsMarker("<table>\r\n<!-- rows -->\r\n</table>\r\n"));
+        assertArrayEquals(new String[] {"<table>", "</table>"},
+                EmailTemplates.splitAtRowsMarker("<table><!-- rows --></table>"));
+    }
+
+    @Test
+    void rejectsDigestWithoutMarker() {
+        assertThrows(IllegalStateException.class, () -> EmailTemplates.splitAtRowsMarker("<table></table>"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache(100, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void userReloadedBeforeCommitIsEvictedAfterIt() {
+        User before = User.builder().email("user@example.com").tokenVersion(0).build();
+        User after = User.builder().email("user@example.com").tokenVersion(1).build();
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate("User@Example.com");
+        // A concurrent request still sees the uncommitted state and caches it
+        assertEquals(before, cache.get("user@example.com", email -> Optional.of(before)).orElseThrow());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(after, cache.get("user@example.com", email -> Optional.of(after)).orElseThrow());
+    }
+
+    @Test
+    void evictsImmediatelyOutsideATransaction() {
+        User before = User.builder().email("user@example.com").tokenVersion(0).build();
+        User after = User.builder().email("user@example.com").tokenVersion(1).build();
+        cache.get("user@example.com", email -> Optional.of(before));
+
+        cache.invalidate("user@example.com");
+
+        assertEquals(after, cache.get("user@example.com", email -> Optional.of(after)).orElseThrow());
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.ProjectRepo;
+import com.example.demo.repository.ProjectTombstoneRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProjectChangeFeedTest {
+
+    @Test
+    void userWithoutCompanyIsRefusedTheFeed() {
+        ProjectService projectService = mock(ProjectService.class);
+        ProjectRepo repo = mock(ProjectRepo.class);
+        ProjectTombstoneRepo tombstoneRepo = mock(ProjectTombstoneRepo.class);
+        when(projectService.getCurrentUser()).thenReturn(ProjectServiceTest.user("USER", null));
+
+        ProjectChangeFeed feed = new ProjectChangeFeed();
+        ReflectionTestUtils.setField(feed, "projectService", projectService);
+        ReflectionTestUtils.setField(feed, "repo", repo);
+        ReflectionTestUtils.setField(feed, "tombstoneRepo", tombstoneRepo);
+
+        assertThrows(AccessDeniedException.class, () -> feed.changesSince(null, null));
+        verifyNoInteractions(repo, tombstoneRepo);
+    }
+}
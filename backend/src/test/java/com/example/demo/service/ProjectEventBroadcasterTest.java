@@ -0,0 +1,51 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectEventBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProjectEventBroadcaster broadcaster =
+            new ProjectEventBroadcaster(1, new ObjectMapper(), meterRegistry);
+
+    ProjectEventBroadcasterTest() {
+        ReflectionTestUtils.setField(broadcaster, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(broadcaster, "bufferSize", 4);
+        ReflectionTestUtils.setField(broadcaster, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(broadcaster, "reconnectDelay", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void userWithoutCompanyCannotSubscribe() {
+        assertThrows(AccessDeniedException.class,
+                () -> broadcaster.subscribe(ProjectServiceTest.user("USER", null)));
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void tenantAndAdminCanSubscribe() {
+        assertNotNull(broadcaster.subscribe(ProjectServiceTest.user("USER", 7L)));
+        assertNotNull(broadcaster.subscribe(ProjectServiceTest.user("ADMIN", null)));
+        assertEquals(2, subscribers());
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("projects.stream.subscribers").gauge().value();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.dto.response.ImportResultDTO;
+import com.example.demo.model.Project;
+import com.example.demo.repository.ProjectRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectExporterTest {
+
+    private static final List<String> TRICKY = List.of(
+            "-", "=SUM(A1)", "+1", "@mention", "'quoted", "''=already", "a,b", "line\nbreak", "say \"hi\"", "plain");
+
+    private final ProjectExporter exporter = new ProjectExporter();
+    private final ProjectImporter importer = new ProjectImporter(mock(PlatformTransactionManager.class));
+    private final ProjectRepo repo = mock(ProjectRepo.class);
+
+    private List<Project> stored;
+
+    @BeforeEach
+    void setUp() {
+        ProjectService projectService = mock(ProjectService.class);
+        when(projectService.getCurrentUser()).thenReturn(ProjectServiceTest.user("USER", 7L));
+        when(projectService.forEachProject(any(), any())).thenAnswer(invocation -> {
+            Consumer<Project> action = invocation.getArgument(1);
+            stored.forEach(action);
+            return (long) stored.size();
+        });
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        ReflectionTestUtils.setField(exporter, "projectService", projectService);
+        ReflectionTestUtils.setField(exporter, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(exporter, "flushEvery", 500);
+
+        ReflectionTestUtils.setField(importer, "projectService", projectService);
+        ReflectionTestUtils.setField(importer, "repo", repo);
+        ReflectionTestUtils.setField(importer, "listCache", mock(ProjectListCache.class));
+        ReflectionTestUtils.setField(importer, "eventBroadcaster", mock(ProjectEventBroadcaster.class));
+        ReflectionTestUtils.setField(importer, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(importer, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(importer, "batchSize", 100);
+        ReflectionTestUtils.setField(importer, "maxRows", 100);
+    }
+
+    @Test
+    void csvNeutralisesFormulasAndQuotesSpecialCharacters() throws IOException {
+        stored = List.of(project("=SUM(A1)", "a,b", "say \"hi\""));
+
+        String csv = export();
+
+        assertEquals(",'=SUM(A1),Title,,,,\"a,b\",,true,,,,,\"say \"\"hi\"\"\"", csv.split("\r\n")[1]);
+    }
+
+    @Test
+    void csvExportImportsBackUnchanged() throws IOException {
+        stored = new ArrayList<>();
+        for (String value : TRICKY) {
+            stored.add(project(value, value, value));
+        }
+
+        ImportResultDTO result = importer.importCsv(new ByteArrayInputStream(
+                export().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(TRICKY.size(), result.getCreated());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Project>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repo).saveAll(saved.capture());
+        List<Project> imported = saved.getValue();
+        for (int i = 0; i < TRICKY.size(); i++) {
+            assertEquals(TRICKY.get(i), imported.get(i).getProjName());
+            assertEquals(TRICKY.get(i), imported.get(i).getCurrPhase());
+            assertEquals(TRICKY.get(i), imported.get(i).getProjDetails());
+        }
+    }
+
+    private String export() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(ProjectExporter.Format.CSV, new ProjectFilter(), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Project project(String name, String phase, String details) {
+        Project project = new Project();
+        project.setProjName(name);
+        project.setProjTitle("Title");
+        project.setCurrPhase(phase);
+        project.setProjDetails(details);
+        return project;
+    }
+}
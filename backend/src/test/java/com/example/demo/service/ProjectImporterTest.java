@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.response.ImportResultDTO;
+import com.example.demo.dto.response.ImportRowResult;
+import com.example.demo.repository.ProjectRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProjectImporterTest {
+
+    private final ProjectImporter importer = new ProjectImporter(mock(PlatformTransactionManager.class));
+    private final ProjectService projectService = mock(ProjectService.class);
+
+    @BeforeEach
+    void setUp() {
+        when(projectService.getCurrentUser()).thenReturn(ProjectServiceTest.user("USER", 7L));
+        ReflectionTestUtils.setField(importer, "projectService", projectService);
+        ReflectionTestUtils.setField(importer, "repo", mock(ProjectRepo.class));
+        ReflectionTestUtils.setField(importer, "listCache", mock(ProjectListCache.class));
+        ReflectionTestUtils.setField(importer, "eventBroadcaster", mock(ProjectEventBroadcaster.class));
+        ReflectionTestUtils.setField(importer, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(importer, "entityManager", mock(EntityManager.class));
+        ReflectionTestUtils.setField(importer, "batchSize", 10);
+        ReflectionTestUtils.setField(importer, "maxRows", 2);
+    }
+
+    @Test
+    void csvWithExactlyMaxRowsIsImportedInFull() throws IOException {
+        ImportResultDTO result = importer.importCsv(body("projName\nA\nB\n\n"));
+
+        assertEquals(2, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRows().size());
+    }
+
+    @Test
+    void csvOverMaxRowsStopsAtTheLimit() throws IOException {
+        ImportResultDTO result = importer.importCsv(body("projName\nA\nB\nC\n"));
+
+        assertEquals(2, result.getCreated());
+        ImportRowResult last = result.getRows().get(result.getRows().size() - 1);
+        assertEquals(3, last.getRow());
+        assertEquals(ImportRowResult.INVALID, last.getStatus());
+    }
+
+    @Test
+    void jsonWithExactlyMaxRowsIsImportedInFull() throws IOException {
+        ImportResultDTO result = importer.importJson(body("[{\"projName\":\"A\"},{\"projName\":\"B\"}]"));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getRows().size());
+    }
+
+    @Test
+    void jsonElementThatDoesNotBindIsRejectedOnItsOwn() throws IOException {
+        ImportResultDTO result = importer.importJson(
+                body("[{\"projName\":\"A\",\"startDate\":\"soon\"},{\"projName\":\"B\"}]"));
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getCreated());
+        ImportRowResult first = result.getRows().get(0);
+        assertEquals(1, first.getRow());
+        assertEquals(ImportRowResult.INVALID, first.getStatus());
+        assertEquals(ImportRowResult.CREATED, result.getRows().get(1).getStatus());
+    }
+
+    @Test
+    void malformedJsonStopsTheImport() throws IOException {
+        ImportResultDTO result = importer.importJson(body("[{\"projName\":\"A\"},{\"projName\": ]"));
+
+        assertEquals(1, result.getCreated());
+        ImportRowResult last = result.getRows().get(result.getRows().size() - 1);
+        assertEquals(ImportRowResult.INVALID, last.getStatus());
+        assertTrue(last.getErrors().get(0).startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void userWithoutCompanyCannotImport() {
+        when(projectService.getCurrentUser()).thenReturn(ProjectServiceTest.user("USER", null));
+
+        assertThrows(AccessDeniedException.class, () -> importer.importCsv(body("projName\nA\n")));
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.request.BulkUpdateRequest;
+import com.example.demo.dto.request.ProjectFilter;
+import com.example.demo.dto.response.CursorPage;
+import com.example.demo.dto.response.ProjectSummaryDTO;
+import com.example.demo.exception.InvalidQueryException;
+import com.example.demo.exception.PreconditionRequiredException;
+import com.example.demo.model.Project;
+import com.example.demo.model.User;
+import com.example.demo.repository.ProjectRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ProjectServiceTest {
+
+    private final ProjectService service = new ProjectService();
+    private final ProjectRepo repo = mock(ProjectRepo.class);
+    private final ProjectListCache listCache = mock(ProjectListCache.class);
+
+    @BeforeEach
+    void setUp() {
+        service.repo = repo;
+        service.listCache = listCache;
+        service.objectMapper = new ObjectMapper().findAndRegisterModules();
+        service.emailService = mock(EmailService.class);
+        service.eventBroadcaster = mock(ProjectEventBroadcaster.class);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(service, "maxPageSize", 200);
+        ReflectionTestUtils.setField(service, "maxBulkUpdateRows", 100);
+        when(listCache.get(any(), any())).thenReturn(CursorPage.of(List.of(), null, 50));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void userWithoutCompanyIsRefusedTheList() {
+        signIn(user("USER", null));
+
+        assertThrows(AccessDeniedException.class, () -> service.getProjectPage(new ProjectFilter(), null, null));
+        verifyNoInteractions(repo, listCache);
+    }
+
+    @Test
+    void userWithoutCompanyCannotCreateProjects() {
+        signIn(user("USER", null));
+
+        assertThrows(AccessDeniedException.class, () -> service.addProject(new Project()));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void userWithoutCompanyGetsNoListETag() {
+        signIn(user("USER", null));
+
+        assertThrows(AccessDeniedException.class, () -> service.getProjectListETag("sort=updatedDate"));
+        assertThrows(AccessDeniedException.class, () -> service.getProjectETag(1));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void tenantAndAdminPagesAreCachedUnderDistinctScopes() {
+        signIn(user("USER", 7L));
+        service.getProjectPage(new ProjectFilter(), null, null);
+        signIn(user("ADMIN", null));
+        service.getProjectPage(new ProjectFilter(), null, null);
+
+        ArgumentCaptor<ProjectListCache.Key> keys = ArgumentCaptor.forClass(ProjectListCache.Key.class);
+        verify(listCache, times(2)).get(keys.capture(), any());
+        ProjectListCache.Key tenant = keys.getAllValues().get(0);
+        ProjectListCache.Key admin = keys.getAllValues().get(1);
+        assertEquals(7L, tenant.companyId());
+        assertFalse(tenant.allCompanies());
+        assertTrue(admin.allCompanies());
+        assertNull(admin.companyId());
+    }
+
+    @Test
+    void userWithoutCompanyCannotBulkUpdate() {
+        signIn(user("USER", null));
+
+        assertThrows(AccessDeniedException.class, () -> service.bulkUpdate(closeProjects(List.of(1, 2))));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void tenantBulkUpdateIsRestrictedToItsCompany() {
+        signIn(user("USER", 7L));
+        ProjectSummaryDTO own = ProjectSummaryDTO.builder().projId(1).companyId(7L).status("Active").build();
+        when(repo.findSummaries(any(), any(), anyInt())).thenReturn(List.of(own));
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.bulkUpdate(closeProjects(List.of(1, 2)));
+
+        verify(repo).bulkUpdateStatusAndPhaseForCompany(eq(List.of(1)), eq(7L), eq("Closed"), any(), any());
+        verify(repo, never()).bulkUpdateStatusAndPhase(any(), any(), any(), any());
+    }
+
+    @Test
+    void patchWithoutVersionOrIfMatchIsRefused() throws Exception {
+        signIn(user("USER", 7L));
+
+        assertThrows(PreconditionRequiredException.class,
+                () -> service.patchProject(1, patch("{\"currPhase\":\"Phase II\"}"), null));
+        assertThrows(PreconditionRequiredException.class,
+                () -> service.patchProject(1, patch("{\"currPhase\":\"Phase II\",\"version\":null}"), null));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void patchRejectsServerManagedFields() throws Exception {
+        signIn(user("USER", 7L));
+
+        assertThrows(InvalidQueryException.class,
+                () -> service.patchProject(1, patch("{\"companyId\":9,\"version\":3}"), null));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void patchBasedOnAnOldVersionConflicts() throws Exception {
+        signIn(user("USER", 7L));
+        when(repo.findByProjIdAndCompanyId(1, 7L)).thenReturn(Optional.of(storedProject()));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.patchProject(1, patch("{\"currPhase\":\"Phase II\",\"version\":2}"), null));
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> service.patchProject(1, patch("{\"currPhase\":\"Phase II\"}"), "\"1-2\""));
+        verify(repo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchChangesOnlyTheFieldsItCarries() throws Exception {
+        signIn(user("USER", 7L));
+        when(repo.findByProjIdAndCompanyId(1, 7L)).thenReturn(Optional.of(storedProject()));
+        when(repo.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        Project patched = service.patchProject(1, patch("{\"currPhase\":\"Phase II\"}"), "\"1-3\"").orElseThrow();
+
+        assertEquals("Phase II", patched.getCurrPhase());
+        assertEquals("Trial", patched.getProjName());
+        assertEquals("Active", patched.getStatus());
+        assertEquals(7L, patched.getCompanyId());
+    }
+
+    private static Project storedProject() {
+        Project project = new Project();
+        project.setProjId(1);
+        project.setVersion(3L);
+        project.setCompanyId(7L);
+        project.setProjName("Trial");
+        project.setCurrPhase("Phase I");
+        project.setStatus("Active");
+        return project;
+    }
+
+    private static JsonNode patch(String json) throws Exception {
+        return new ObjectMapper().readTree(json);
+    }
+
+    private static BulkUpdateRequest closeProjects(List<Integer> ids) {
+        BulkUpdateRequest request = new BulkUpdateRequest();
+        request.setIds(ids);
+        request.setStatus("Closed");
+        return request;
+    }
+
+    static User user(String role, Long companyId) {
+        return User.builder()
+                .id(1L)
+                .email("user@example.com")
+                .companyName("Acme")
+                .companyId(companyId)
+                .role(role)
+                .build();
+    }
+
+    static void signIn(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
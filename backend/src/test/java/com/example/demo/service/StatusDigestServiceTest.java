@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.model.EmailOutbox;
+import com.example.demo.model.StatusChange;
+import com.example.demo.repository.EmailOutboxRepo;
+import com.example.demo.repository.StatusChangeRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class StatusDigestServiceTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.now().minusMinutes(10);
+
+    @Autowired
+    private StatusChangeRepo statusChangeRepo;
+
+    @Autowired
+    private EmailOutboxRepo outboxRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private StatusDigestService digestService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "outboxRepo", outboxRepo);
+        ReflectionTestUtils.setField(emailService, "statusChangeRepo", statusChangeRepo);
+        ReflectionTestUtils.setField(emailService, "dispatcher", mock(EmailOutboxDispatcher.class));
+        ReflectionTestUtils.setField(emailService, "templates", new EmailTemplates("Project Tracker", "http://localhost"));
+
+        digestService = new StatusDigestService(statusChangeRepo, emailService,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(digestService, "window", Duration.ofMinutes(2));
+        ReflectionTestUtils.setField(digestService, "batchSize", 200);
+    }
+
+    @Test
+    void changeThatWasRevertedSendsNothing() {
+        record("a@example.com", 1, "Active", "On Hold", DUE);
+        record("a@example.com", 1, "On Hold", "Active", DUE.plusSeconds(10));
+
+        digestService.sendDueDigests();
+
+        assertEquals(0, outboxRepo.count());
+        assertEquals(0, statusChangeRepo.count());
+    }
+
+    @Test
+    void singleProjectGetsTheStatusUpdateEmail() {
+        record("a@example.com", 1, "Active", "On Hold", DUE);
+        record("a@example.com", 1, "On Hold", "Completed", DUE.plusSeconds(10));
+
+        digestService.sendDueDigests();
+
+        List<EmailOutbox> emails = outboxRepo.findAll();
+        assertEquals(1, emails.size());
+        assertEquals("Project Status Update - Project 1", emails.get(0).getSubject());
+        assertTrue(emails.get(0).getBody().contains("Completed"));
+        assertEquals(0, statusChangeRepo.count());
+    }
+
+    @Test
+    void severalProjectsGetOneDigest() {
+        record("a@example.com", 1, "Active", "On Hold", DUE);
+        record("a@example.com", 2, "Active", "Completed", DUE.plusSeconds(5));
+        record("a@example.com", 3, "Active", "Cancelled", DUE.plusSeconds(10));
+
+        digestService.sendDueDigests();
+
+        List<EmailOutbox> emails = outboxRepo.findAll();
+        assertEquals(1, emails.size());
+        assertEquals("a@example.com", emails.get(0).getRecipient());
+        assertEquals("Project Status Updates - 3 projects", emails.get(0).getSubject());
+    }
+
+    @Test
+    void recipientStillInsideTheWindowIsLeftAlone() {
+        record("due@example.com", 1, "Active", "On Hold", DUE);
+        record("recent@example.com", 2, "Active", "On Hold", LocalDateTime.now());
+
+        digestService.sendDueDigests();
+
+        List<EmailOutbox> emails = outboxRepo.findAll();
+        assertEquals(1, emails.size());
+        assertEquals("due@example.com", emails.get(0).getRecipient());
+        List<StatusChange> remaining = statusChangeRepo.findAll();
+        assertEquals(1, remaining.size());
+        assertEquals("recent@example.com", remaining.get(0).getRecipient());
+    }
+
+    private void record(String recipient, int projId, String oldStatus, String newStatus, LocalDateTime changedAt) {
+        statusChangeRepo.save(StatusChange.builder()
+                .recipient(recipient)
+                .projId(projId)
+                .projectName("Project " + projId)
+                .oldStatus(oldStatus)
+                .newStatus(newStatus)
+                .changedAt(changedAt)
+                .build());
+    }
+}
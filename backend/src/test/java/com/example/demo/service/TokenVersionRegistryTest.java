@@ -0,0 +1,63 @@
+package com.example.demo.service;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+
+    private final UserRepo userRepository = mock(UserRepo.class);
+    private final TokenVersionRegistry registry = new TokenVersionRegistry(userRepository, 100, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rolledBackBumpKeepsCurrentTokensValid() {
+        User user = user();
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.bump(user);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(registry.isCurrent(1L, 0));
+    }
+
+    @Test
+    void committedBumpRevokesOlderTokens() {
+        User user = user();
+        when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        assertTrue(registry.isCurrent(1L, 0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        registry.bump(user);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertFalse(registry.isCurrent(1L, 0));
+        assertTrue(registry.isCurrent(1L, 1));
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setTokenVersion(0);
+        return user;
+    }
+}
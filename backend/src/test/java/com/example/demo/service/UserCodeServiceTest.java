@@ -0,0 +1,129 @@
+package com.example.demo.service;
+
+import com.example.demo.model.UserCode;
+import com.example.demo.repository.UserCodeRepo;
+import com.example.demo.util.CodeGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: each call commits on its own, as it does behind the controllers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserCodeServiceTest {
+
+    private static final Duration VALIDITY = Duration.ofMinutes(15);
+
+    @Autowired
+    private UserCodeRepo userCodeRepo;
+
+    private UserCodeService service;
+
+    @Autowired
+    void createService(UserCodeRepo userCodeRepo) {
+        service = new UserCodeService(userCodeRepo, new CodeGenerator(), "test-secret");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userCodeRepo.deleteAll();
+    }
+
+    @Test
+    void storesOnlyAHashOfTheCode() {
+        String code = service.issue(1L, UserCode.VERIFICATION, VALIDITY);
+
+        UserCode stored = userCodeRepo.findByUserIdAndPurpose(1L, UserCode.VERIFICATION).orElseThrow();
+        assertEquals(64, stored.getCodeHash().length());
+        assertFalse(stored.getCodeHash().contains(code));
+        assertFalse(stored.isExpired());
+    }
+
+    @Test
+    void matchesOnlyTheRightCodeForTheUserAndPurpose() {
+        String code = service.issue(1L, UserCode.VERIFICATION, VALIDITY);
+
+        assertNotNull(service.findMatching(1L, UserCode.VERIFICATION, code));
+        assertNotNull(service.findMatching(1L, UserCode.VERIFICATION, " " + code.toLowerCase() + " "));
+        assertNull(service.findMatching(1L, UserCode.VERIFICATION, code + "0"));
+        assertNull(service.findMatching(1L, UserCode.PASSWORD_RESET, code));
+        assertNull(service.findMatching(2L, UserCode.VERIFICATION, code));
+        assertNull(service.findMatching(1L, UserCode.VERIFICATION, null));
+    }
+
+    @Test
+    void reissuingReplacesThePreviousCode() {
+        String first = service.issue(1L, UserCode.PASSWORD_RESET, VALIDITY);
+        String second = service.issue(1L, UserCode.PASSWORD_RESET, VALIDITY);
+
+        assertNotEquals(first, second);
+        assertNull(service.findMatching(1L, UserCode.PASSWORD_RESET, first));
+        assertNotNull(service.findMatching(1L, UserCode.PASSWORD_RESET, second));
+        assertEquals(1, userCodeRepo.count());
+    }
+
+    @Test
+    void expiredCodeStillMatchesButReportsExpiry() {
+        String code = service.issue(1L, UserCode.VERIFICATION, Duration.ofMinutes(-1));
+
+        UserCode match = service.findMatching(1L, UserCode.VERIFICATION, code);
+        assertNotNull(match);
+        assertTrue(match.isExpired());
+    }
+
+    @Test
+    void consumedCodeCannotBeUsedAgain() {
+        String code = service.issue(1L, UserCode.VERIFICATION, VALIDITY);
+
+        service.consume(service.findMatching(1L, UserCode.VERIFICATION, code));
+
+        assertNull(service.findMatching(1L, UserCode.VERIFICATION, code));
+    }
+
+    @Test
+    void concurrentResendsLeaveOneValidCode() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return service.issue(1L, UserCode.VERIFICATION, VALIDITY);
+                }));
+            }
+            start.countDown();
+            List<String> codes = new ArrayList<>();
+            for (Future<String> result : results) {
+                codes.add(result.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, userCodeRepo.count());
+            assertEquals(1, codes.stream().filter(code -> service.findMatching(1L, UserCode.VERIFICATION, code) != null).count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.request.LoginRequest;
+import com.example.demo.dto.response.AuthResponse;
+import com.example.demo.exception.EmailNotVerifiedException;
+import com.example.demo.exception.GlobalExceptionHandler;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepo;
+import com.example.demo.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private static final String EMAIL = "user@example.com";
+    private static final String STORED_HASH = "stored-hash";
+
+    private final UserService userService = new UserService();
+    private final UserRepo userRepository = mock(UserRepo.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final JwtUtil jwtUtil = mock(JwtUtil.class);
+    private final PrincipalCache principalCache = mock(PrincipalCache.class);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(userService, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(userService, "principalCache", principalCache);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash:" + invocation.getArgument(0));
+        when(passwordEncoder.matches("secret", STORED_HASH)).thenReturn(true);
+        when(jwtUtil.generateToken(any(User.class))).thenReturn("token");
+    }
+
+    @AfterEach
+    void loadsTheUserOnce() {
+        verify(userRepository).findByEmail(EMAIL);
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void validLoginReturnsAToken() {
+        signUp(true, true);
+
+        AuthResponse response = userService.loginUser(login("User@Example.com", "secret"));
+
+        assertEquals("token", response.getToken());
+        assertEquals(EMAIL, response.getUser().getEmail());
+        verify(principalCache, never()).invalidate(any());
+    }
+
+    @Test
+    void unknownEmailStillSpendsAHash() {
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(BadCredentialsException.class, () -> userService.loginUser(login(EMAIL, "secret")));
+
+        verify(passwordEncoder).matches("secret", "hash:userNotFoundPassword");
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void unverifiedAccountIsRefused() {
+        signUp(false, true);
+
+        assertThrows(EmailNotVerifiedException.class, () -> userService.loginUser(login(EMAIL, "secret")));
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void disabledAccountIsForbidden() {
+        signUp(true, false);
+
+        DisabledException e = assertThrows(DisabledException.class, () -> userService.loginUser(login(EMAIL, "secret")));
+
+        assertEquals(HttpStatus.FORBIDDEN, new GlobalExceptionHandler().handleDisabled(e).getStatusCode());
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void wrongPasswordIsRefused() {
+        signUp(true, true);
+
+        assertThrows(BadCredentialsException.class, () -> userService.loginUser(login(EMAIL, "wrong")));
+        verify(jwtUtil, never()).generateToken(any(User.class));
+    }
+
+    @Test
+    void outdatedHashIsUpgradedOnLogin() {
+        User user = signUp(true, true);
+        when(passwordEncoder.upgradeEncoding(STORED_HASH)).thenReturn(true);
+        when(userRepository.save(user)).thenReturn(user);
+
+        userService.loginUser(login(EMAIL, "secret"));
+
+        assertEquals("hash:secret", user.getPassword());
+        verify(userRepository).save(user);
+        verify(principalCache).invalidate(EMAIL);
+    }
+
+    private User signUp(boolean emailVerified, boolean enabled) {
+        User user = User.builder()
+                .id(1L)
+                .email(EMAIL)
+                .password(STORED_HASH)
+                .emailVerified(emailVerified)
+                .enabled(enabled)
+                .build();
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    private static LoginRequest login(String email, String password) {
+        return LoginRequest.builder().email(email).password(password).build();
+    }
+}
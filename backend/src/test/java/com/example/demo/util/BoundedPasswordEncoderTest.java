@@ -0,0 +1,129 @@
+package com.example.demo.util;
+
+import com.example.demo.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final SlowEncoder delegate = new SlowEncoder();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        callers.shutdownNow();
+        encoder.destroy();
+    }
+
+    @Test
+    void fullQueueIsRefusedImmediately() throws Exception {
+        encoder = encoder(Duration.ofSeconds(5));
+        occupyHashingThread();
+        callers.submit(() -> encoder.encode("queued"));
+        awaitQueueSize(1);
+
+        ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> encoder.encode("refused"));
+
+        assertEquals(Duration.ofSeconds(5), e.getRetryAfter());
+        assertEquals(1, meterRegistry.counter("auth.hashing.rejected").count());
+    }
+
+    @Test
+    void hashNotStartedWithinBudgetIsAbandoned() throws Exception {
+        encoder = encoder(Duration.ofMillis(100));
+        occupyHashingThread();
+
+        assertThrows(ServiceBusyException.class, () -> encoder.encode("abandoned"));
+
+        // The abandoned task gives up its queue slot and never reaches the delegate
+        assertEquals(0, meterRegistry.get("auth.hashing.queue.size").gauge().value());
+        delegate.release.countDown();
+        assertEquals("hashed:next", encoder.encode("next"));
+        assertEquals(2, delegate.calls.get());
+    }
+
+    @Test
+    void runningHashCompletesAfterBudget() {
+        encoder = encoder(Duration.ofMillis(50));
+        delegate.delay = Duration.ofMillis(300);
+        delegate.release.countDown();
+
+        assertEquals("hashed:slow", encoder.encode("slow"));
+        assertEquals(0, meterRegistry.counter("auth.hashing.rejected").count());
+    }
+
+    @Test
+    void delegateFailureReachesTheCaller() {
+        encoder = encoder(Duration.ofSeconds(1));
+        delegate.release.countDown();
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.matches("secret", null));
+    }
+
+    // One hashing thread and one queue slot
+    private BoundedPasswordEncoder encoder(Duration queueBudget) {
+        return new BoundedPasswordEncoder(delegate, 1, 1, queueBudget, meterRegistry);
+    }
+
+    private void occupyHashingThread() throws InterruptedException {
+        CompletableFuture.runAsync(() -> encoder.encode("running"), callers);
+        assertTrue(delegate.started.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.hashing.queue.size").gauge().value() < size) {
+            assertTrue(System.nanoTime() < deadline, "task was not queued");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Blocks each hash until released, then takes the configured delay
+     */
+    private static class SlowEncoder implements PasswordEncoder {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        volatile Duration delay = Duration.ZERO;
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (encodedPassword == null) {
+                throw new IllegalArgumentException("No stored hash");
+            }
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HtmlTemplateTest {
+
+    @Test
+    void escapesValues() {
+        HtmlTemplate template = HtmlTemplate.compile("<p>Hi {{name}}!</p>", "name");
+
+        assertEquals("<p>Hi &lt;b&gt;Tom &amp; &quot;Jerry&quot; O&#39;Neil&lt;/b&gt;!</p>",
+                template.render("<b>Tom & \"Jerry\" O'Neil</b>"));
+        assertEquals("<p>Hi !</p>", template.render((String) null));
+    }
+
+    @Test
+    void bindFoldsValueIntoLiterals() {
+        HtmlTemplate template = HtmlTemplate.compile("{{app}}: {{a}} -> {{b}} ({{app}})", "app", "a", "b")
+                .bind("app", "A&B");
+
+        assertEquals(List.of("a", "b"), template.getVariables());
+        assertEquals("A&amp;B: x -> y (A&amp;B)", template.render("x", "y"));
+    }
+
+    @Test
+    void rejectsUnknownPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> HtmlTemplate.compile("{{missing}}", "name"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.util;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PooledMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PooledMailSender sender;
+
+    @AfterEach
+    void tearDown() {
+        sender.destroy();
+    }
+
+    @Test
+    void reusesConnectionAcrossSends() {
+        sender = sender(100);
+
+        sender.send(messages(3));
+        sender.send(messages(3));
+
+        assertEquals(6, greenMail.getReceivedMessages().length);
+        assertEquals(1, connectionsOpened());
+    }
+
+    @Test
+    void replacesConnectionAfterMessageLimit() {
+        sender = sender(2);
+
+        sender.send(messages(5));
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(3, connectionsOpened());
+    }
+
+    @Test
+    void reconnectsWhenPooledConnectionWasDropped() {
+        sender = sender(100);
+        sender.send(messages(1));
+
+        // Restarting the server closes the idle pooled connection
+        greenMail.reset();
+        sender.send(messages(2));
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(2, connectionsOpened());
+    }
+
+    private PooledMailSender sender(int maxMessagesPerConnection) {
+        // validate-after is long so a dropped connection is only noticed when sending on it
+        PooledMailSender pooled = new PooledMailSender(1, Duration.ofSeconds(5), Duration.ofMinutes(5),
+                Duration.ofHours(1), maxMessagesPerConnection, meterRegistry);
+        pooled.setHost("localhost");
+        pooled.setPort(greenMail.getSmtp().getPort());
+        return pooled;
+    }
+
+    private MimeMessage[] messages(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            try {
+                MimeMessage message = sender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom("noreply@example.com");
+                helper.setTo("client" + i + "@example.com");
+                helper.setSubject("Message " + i);
+                helper.setText("Hello");
+                return message;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toArray(MimeMessage[]::new);
+    }
+
+    private double connectionsOpened() {
+        return meterRegistry.counter("email.smtp.connections.opened").count();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.util;
+
+import com.example.demo.exception.InvalidQueryException;
+import com.example.demo.repository.ProjectSort;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectCursorTest {
+
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+
+    @Test
+    void roundTrips() {
+        ProjectCursor cursor = new ProjectCursor(ProjectSort.UPDATED_DATE, Sort.Direction.DESC, UPDATED, 42);
+
+        assertEquals(cursor, ProjectCursor.decode(cursor.encode(), ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+    }
+
+    @Test
+    void blankCursorIsFirstPage() {
+        assertNull(ProjectCursor.decode(null, ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+        assertNull(ProjectCursor.decode(" ", ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+    }
+
+    @Test
+    void rejectsCursorIssuedForAnotherOrdering() {
+        String cursor = new ProjectCursor(ProjectSort.UPDATED_DATE, Sort.Direction.DESC, UPDATED, 42).encode();
+
+        assertThrows(InvalidQueryException.class,
+                () -> ProjectCursor.decode(cursor, ProjectSort.CREATED_DATE, Sort.Direction.DESC));
+        assertThrows(InvalidQueryException.class,
+                () -> ProjectCursor.decode(cursor, ProjectSort.UPDATED_DATE, Sort.Direction.ASC));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(InvalidQueryException.class,
+                () -> ProjectCursor.decode("not base64!", ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+        assertThrows(InvalidQueryException.class,
+                () -> ProjectCursor.decode(encode("UPDATED_DATE|DESC|yesterday|42"), ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+        assertThrows(InvalidQueryException.class,
+                () -> ProjectCursor.decode(encode("UPDATED_DATE|DESC|" + UPDATED), ProjectSort.UPDATED_DATE, Sort.Direction.DESC));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
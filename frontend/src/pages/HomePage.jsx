@@ -7,6 +7,8 @@ function HomePage() {
   const { user, logout } = useAuth();
   const [projects, setProjects] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
 
   // Modal states
@@ -23,11 +25,37 @@ function HomePage() {
     fetchProjects();
   }, []);
 
+  // Apply changes made by other users as they happen
+  useEffect(() => {
+    const unsubscribe = projectService.subscribeToEvents((event) => {
+      switch (event.type) {
+        case 'created':
+          setProjects((current) => [event.project, ...current.filter((p) => p.projId !== event.projId)]);
+          break;
+        case 'updated':
+          setProjects((current) =>
+            current.map((p) => (p.projId === event.projId ? { ...p, ...event.project } : p))
+          );
+          break;
+        case 'deleted':
+          setProjects((current) => current.filter((p) => p.projId !== event.projId));
+          break;
+        case 'refresh':
+          fetchProjects();
+          break;
+        default:
+          break;
+      }
+    });
+    return unsubscribe;
+  }, []);
+
   const fetchProjects = async () => {
     try {
       setLoading(true);
-      const data = await projectService.getAllProjects();
-      setProjects(data);
+      const page = await projectService.getProjectPage();
+      setProjects(page.items);
+      setNextCursor(page.next);
       setError(null);
     } catch (err) {
       setError('Failed to load projects. Make sure the backend is running.');
@@ -37,6 +65,26 @@ function HomePage() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const page = await projectService.getProjectPage({ cursor: nextCursor });
+      // Skip rows already shown (e.g. added through the event stream)
+      setProjects((current) => {
+        const shown = new Set(current.map((p) => p.projId));
+        return [...current, ...page.items.filter((p) => !shown.has(p.projId))];
+      });
+      setNextCursor(page.next);
+      setError(null);
+    } catch (err) {
+      setError('Failed to load more projects.');
+      console.error(err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleDelete = async (id) => {
     if (window.confirm('Are you sure you want to delete this project?')) {
       try {
@@ -49,10 +97,17 @@ function HomePage() {
     }
   };
 
-  // Open modal with project data
-  const handleEditClick = (project) => {
-    setEditFormData({ ...project });
-    setIsModalOpen(true);
+  // Open modal with project data. The list only holds summaries,
+  // so load the full project (including projDetails) before editing.
+  const handleEditClick = async (project) => {
+    try {
+      const fullProject = await projectService.getProjectById(project.projId);
+      setEditFormData({ ...fullProject });
+      setIsModalOpen(true);
+    } catch (err) {
+      setError('Failed to load project');
+      console.error(err);
+    }
   };
 
   // Close modal
@@ -84,7 +139,9 @@ function HomePage() {
 
       handleCloseModal();
     } catch (err) {
-      setError('Failed to update project');
+      setError(err.response?.status === 409
+        ? 'This project was changed by someone else. Reload it and try again.'
+        : 'Failed to update project');
       console.error(err);
     } finally {
       setIsSaving(false);
@@ -398,6 +455,17 @@ function HomePage() {
                 ))}
               </tbody>
             </table>
+            {nextCursor && (
+              <div className="px-6 py-4 border-t border-gray-200 text-center">
+                <button
+                  onClick={loadMore}
+                  disabled={loadingMore}
+                  className="px-4 py-2 text-sm font-medium text-blue-600 bg-white border border-blue-600 rounded-lg hover:bg-blue-50 disabled:opacity-50"
+                >
+                  {loadingMore ? 'Loading...' : 'Load more'}
+                </button>
+              </div>
+            )}
           </div>
         )}
 
@@ -39,9 +39,11 @@ api.interceptors.response.use(
 );
 
 export const projectService = {
-  async getAllProjects() {
+  // One page of projects: { items, next }. Pass `next` back as `cursor` for the following page;
+  // it is null on the last page.
+  async getProjectPage(params = {}) {
     try {
-      const response = await api.get('/api/projects');
+      const response = await api.get('/api/projects', { params });
       return response.data;
     } catch (error) {
       console.error('Error fetching projects:', error);
@@ -80,6 +82,75 @@ export const projectService = {
     }
   },
 
+  // Only the given fields change; `version` from the last read is required (428 without it, 409 if stale)
+  async patchProject(id, changes) {
+    try {
+      const response = await api.patch(`/api/projects/${id}`, changes);
+      return response.data;
+    } catch (error) {
+      console.error('Error patching project:', error);
+      throw error;
+    }
+  },
+
+  // Listens to GET /api/projects/stream (Server-Sent Events) and calls onEvent({ type, projId, project }).
+  // Uses fetch rather than EventSource so the JWT can go in the Authorization header.
+  // Reconnects after a drop and then emits a 'refresh' event, since changes may have been missed.
+  // Returns a function that closes the stream.
+  subscribeToEvents(onEvent, retryDelayMs = 5000) {
+    const controller = new AbortController();
+    let reconnecting = false;
+
+    const connect = async () => {
+      try {
+        const response = await fetch(`${API_BASE_URL}/api/projects/stream`, {
+          headers: {
+            Accept: 'text/event-stream',
+            Authorization: `Bearer ${localStorage.getItem('token')}`,
+          },
+          signal: controller.signal,
+        });
+        if (!response.ok) {
+          throw new Error(`Event stream failed with status ${response.status}`);
+        }
+        if (reconnecting) {
+          onEvent({ type: 'refresh' });
+        }
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value;
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, end);
+            buffer = buffer.slice(end + 2);
+            const data = block
+              .split('\n')
+              .filter((line) => line.startsWith('data:'))
+              .map((line) => line.slice(5))
+              .join('\n');
+            if (data) {
+              onEvent(JSON.parse(data));
+            }
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        console.error('Project event stream error:', error);
+      }
+      if (!controller.signal.aborted) {
+        reconnecting = true;
+        setTimeout(connect, retryDelayMs);
+      }
+    };
+
+    connect();
+    return () => controller.abort();
+  },
+
   async deleteProject(id) {
     try {
       const response = await api.delete(`/api/projects/${id}`);